@@ -0,0 +1,25 @@
+package com.chavaillaz.browser.checkpoint;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Set;
+
+import org.openqa.selenium.Cookie;
+
+/**
+ * State of a flow saved after a step, allowing to resume the flow from this point.
+ *
+ * @param name      The name of the checkpoint in the flow
+ * @param context   The context instance of the flow, {@code null} if the flow has no context
+ * @param url       The URL of the page loaded in the browser
+ * @param cookies   The cookies of the page loaded in the browser
+ * @param createdAt The moment the checkpoint was saved
+ */
+public record Checkpoint(
+        String name,
+        Serializable context,
+        String url,
+        Set<Cookie> cookies,
+        Instant createdAt) implements Serializable {
+
+}
@@ -0,0 +1,33 @@
+package com.chavaillaz.browser.checkpoint;
+
+import java.util.Optional;
+
+/**
+ * Storage of the last checkpoint of flows.
+ */
+public interface CheckpointStore {
+
+    /**
+     * Saves the checkpoint of a flow, replacing the previous one.
+     *
+     * @param flowId     The identifier of the flow
+     * @param checkpoint The checkpoint to save
+     */
+    void save(String flowId, Checkpoint checkpoint);
+
+    /**
+     * Loads the last checkpoint of a flow.
+     *
+     * @param flowId The identifier of the flow
+     * @return The last checkpoint saved, {@link Optional#empty()} if there is none
+     */
+    Optional<Checkpoint> load(String flowId);
+
+    /**
+     * Removes the checkpoint of a flow.
+     *
+     * @param flowId The identifier of the flow
+     */
+    void clear(String flowId);
+
+}
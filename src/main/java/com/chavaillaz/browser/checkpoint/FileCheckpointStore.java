@@ -0,0 +1,120 @@
+package com.chavaillaz.browser.checkpoint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Cookie;
+
+/**
+ * Storage of the checkpoints in a local directory, with one file by flow.
+ * The file names are URL encoded from the flow identifiers, so that identifiers never escape the directory.
+ * Checkpoints are written in a temporary file first, so that a crash never leaves a partial checkpoint.
+ * They are read back with a deserialization filter only accepting the classes of the checkpoints, the JDK values
+ * and collections, and the classes allowed with {@link #withAllowedClasses(String...)} for the flow contexts.
+ */
+@Slf4j
+public class FileCheckpointStore implements CheckpointStore {
+
+    /**
+     * Classes always accepted when reading checkpoints, in the pattern syntax of {@link ObjectInputFilter.Config}.
+     */
+    public static final String DEFAULT_FILTER = "maxdepth=20;maxrefs=100000;maxarray=100000;maxbytes=10000000;"
+            + Checkpoint.class.getName() + ";" + Cookie.class.getName() + ";java.lang.*;java.util.*;java.time.*";
+
+    private final Path directory;
+    private ObjectInputFilter filter = ObjectInputFilter.Config.createFilter(DEFAULT_FILTER + ";!*");
+
+    /**
+     * Creates a new checkpoint storage.
+     *
+     * @param directory The directory in which to store the checkpoints
+     */
+    public FileCheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Sets the classes of the flow contexts accepted when reading checkpoints, in addition to the JDK values and
+     * collections. All the other classes are rejected, so that the checkpoint files cannot be used to deserialize
+     * arbitrary objects.
+     *
+     * @param patterns The class names or patterns ({@code com.company.Context}, {@code com.company.*} for a package
+     *                 or {@code com.company.**} including the sub-packages)
+     * @return The current store instance
+     */
+    public FileCheckpointStore withAllowedClasses(String... patterns) {
+        StringBuilder pattern = new StringBuilder(DEFAULT_FILTER);
+        for (String allowed : patterns) {
+            pattern.append(';').append(allowed);
+        }
+        this.filter = ObjectInputFilter.Config.createFilter(pattern.append(";!*").toString());
+        return this;
+    }
+
+    @Override
+    public void save(String flowId, Checkpoint checkpoint) {
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, getFileName(flowId), ".tmp");
+            try (OutputStream file = Files.newOutputStream(temporary);
+                 ObjectOutputStream stream = new ObjectOutputStream(file)) {
+                stream.writeObject(checkpoint);
+            }
+            Files.move(temporary, getPath(flowId), REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new BrowserException("Unable to save checkpoint " + checkpoint.name() + " of flow " + flowId, e);
+        }
+    }
+
+    @Override
+    public Optional<Checkpoint> load(String flowId) {
+        Path path = getPath(flowId);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (InputStream file = Files.newInputStream(path);
+             ObjectInputStream stream = new ObjectInputStream(file)) {
+            stream.setObjectInputFilter(filter);
+            return Optional.of((Checkpoint) stream.readObject());
+        } catch (IOException | ClassNotFoundException e) {
+            log.warn("Ignoring unreadable checkpoint of flow {}", flowId, e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void clear(String flowId) {
+        try {
+            Files.deleteIfExists(getPath(flowId));
+        } catch (IOException e) {
+            throw new BrowserException("Unable to clear checkpoint of flow " + flowId, e);
+        }
+    }
+
+    private Path getPath(String flowId) {
+        return directory.resolve(getFileName(flowId) + ".checkpoint");
+    }
+
+    private static String getFileName(String flowId) {
+        if (flowId == null || flowId.isBlank()) {
+            throw new BrowserException("Flow identifier must not be empty");
+        }
+        return URLEncoder.encode(flowId, UTF_8);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.chavaillaz.browser.crawler;
+
+import java.util.Collection;
+
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+
+/**
+ * Processing of a page visited by a {@link Crawler}.
+ *
+ * @param <B> The type of automated browser used
+ */
+@FunctionalInterface
+public interface CrawlHandler<B extends AutomatedBrowser> {
+
+    /**
+     * Processes the page loaded in the browser.
+     *
+     * @param browser The browser in which the page is loaded
+     * @param request The URL visited
+     * @return The URLs discovered in the page to visit next
+     */
+    Collection<String> handle(B browser, CrawlRequest request);
+
+}
@@ -0,0 +1,17 @@
+package com.chavaillaz.browser.crawler;
+
+import java.net.URI;
+
+/**
+ * URL to visit, given by a {@link UrlFrontier}.
+ *
+ * @param url      The normalized URL
+ * @param priority The priority of the URL, the highest being visited first
+ * @param depth    The number of links followed from the seed URLs
+ */
+public record CrawlRequest(
+        URI url,
+        int priority,
+        int depth) {
+
+}
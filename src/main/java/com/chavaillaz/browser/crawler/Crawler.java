@@ -0,0 +1,161 @@
+package com.chavaillaz.browser.crawler;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crawler visiting the URLs of a {@link UrlFrontier} with multiple browser workers in parallel,
+ * adding the URLs discovered in the pages back to the frontier. Discovered URLs are dropped when the frontier
+ * is full, as blocking the workers would prevent the frontier from being consumed.
+ *
+ * @param <B> The type of automated browser used
+ */
+@Slf4j
+public class Crawler<B extends AutomatedBrowser> implements Closeable {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(200);
+    private final AtomicLong visited = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<Thread> threads = new ArrayList<>();
+    private final UrlFrontier frontier;
+    private final List<B> browsers;
+    private final CrawlHandler<B> handler;
+    private int maxDepth = Integer.MAX_VALUE;
+    private boolean started;
+    private volatile long startTime;
+
+    /**
+     * Creates a new crawler.
+     *
+     * @param frontier       The frontier giving the URLs to visit
+     * @param browserFactory The factory creating the browser of each worker
+     * @param workers        The number of workers visiting pages in parallel
+     * @param handler        The processing of each page visited
+     */
+    public Crawler(UrlFrontier frontier, Supplier<B> browserFactory, int workers, CrawlHandler<B> handler) {
+        this.frontier = frontier;
+        this.handler = handler;
+        this.browsers = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            browsers.add(browserFactory.get());
+        }
+    }
+
+    /**
+     * Sets the maximum number of links followed from the seed URLs.
+     *
+     * @param maxDepth The maximum depth of the URLs discovered to visit
+     * @return The current crawler instance
+     */
+    public Crawler<B> withMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Starts the workers in background. The seed URLs must be put in the frontier before,
+     * as the workers stop as soon as the frontier is drained. Starting a crawler already started has no effect.
+     *
+     * @return The current crawler instance
+     * @throws BrowserException If the frontier contains no URL to visit
+     */
+    public synchronized Crawler<B> start() {
+        if (started) {
+            return this;
+        }
+        if (frontier.isDrained()) {
+            throw new BrowserException("No URL to crawl, put the seed URLs in the frontier before starting the crawler");
+        }
+
+        started = true;
+        startTime = System.nanoTime();
+        for (int i = 0; i < browsers.size(); i++) {
+            B browser = browsers.get(i);
+            Thread thread = new Thread(() -> work(browser), "crawler-worker-" + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        return this;
+    }
+
+    /**
+     * Waits for all the URLs of the frontier to be visited.
+     *
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void awaitCompletion() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the metrics of the crawler.
+     *
+     * @return The crawler metrics
+     */
+    public CrawlerMetrics getMetrics() {
+        double seconds = startTime == 0 ? 0 : (System.nanoTime() - startTime) / 1_000_000_000d;
+        long pages = visited.get();
+        return new CrawlerMetrics(
+                frontier.getMetrics(),
+                browsers.size(),
+                pages,
+                failed.get(),
+                seconds > 0 ? pages / seconds : 0);
+    }
+
+    /**
+     * Visits the URLs of the frontier until it is drained or the thread is interrupted.
+     *
+     * @param browser The browser of the worker
+     */
+    private void work(B browser) {
+        try {
+            while (!frontier.isDrained()) {
+                Optional<CrawlRequest> request = frontier.poll(POLL_TIMEOUT);
+                if (request.isPresent()) {
+                    visit(browser, request.get());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void visit(B browser, CrawlRequest request) {
+        try {
+            browser.navigate(request.url().toString());
+            for (String url : handler.handle(browser, request)) {
+                if (request.depth() < maxDepth) {
+                    frontier.offer(url, request.priority(), request.depth() + 1);
+                }
+            }
+            visited.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            log.warn("Unable to crawl {}", request.url(), e);
+        } finally {
+            frontier.complete(request);
+        }
+    }
+
+    /**
+     * Stops the workers. The browsers are not closed as they were given by the factory.
+     */
+    @Override
+    public synchronized void close() {
+        threads.forEach(Thread::interrupt);
+    }
+
+}
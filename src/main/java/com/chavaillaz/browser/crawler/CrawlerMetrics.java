@@ -0,0 +1,19 @@
+package com.chavaillaz.browser.crawler;
+
+/**
+ * Metrics of a {@link Crawler}.
+ *
+ * @param frontier   The metrics of the frontier feeding the crawler
+ * @param workers    The number of browser workers
+ * @param visited    The number of pages visited successfully
+ * @param failed     The number of pages whose visit failed
+ * @param throughput The number of pages visited by second since the start
+ */
+public record CrawlerMetrics(
+        FrontierMetrics frontier,
+        int workers,
+        long visited,
+        long failed,
+        double throughput) {
+
+}
@@ -0,0 +1,25 @@
+package com.chavaillaz.browser.crawler;
+
+/**
+ * Metrics of a {@link UrlFrontier}.
+ *
+ * @param queued     The number of URLs waiting to be visited
+ * @param inFlight   The number of URLs being visited
+ * @param hosts      The number of hosts with URLs waiting
+ * @param seen       The number of distinct URLs accepted since the creation
+ * @param duplicates The number of URLs ignored because already seen
+ * @param rejected   The number of URLs rejected because invalid
+ * @param overflows  The number of URLs not added because the frontier was full
+ * @param completed  The number of URLs visited
+ */
+public record FrontierMetrics(
+        int queued,
+        int inFlight,
+        int hosts,
+        long seen,
+        long duplicates,
+        long rejected,
+        long overflows,
+        long completed) {
+
+}
@@ -0,0 +1,70 @@
+package com.chavaillaz.browser.crawler;
+
+/**
+ * Rate limiter allowing a number of permits by second, with bursts up to a given capacity.
+ * This class is not thread-safe and must be guarded by its owner.
+ */
+public class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Creates a new token bucket, full at creation.
+     *
+     * @param permitsPerSecond The number of permits refilled each second
+     * @param capacity         The maximum number of permits accumulated
+     * @param now              The current time in nanoseconds
+     */
+    public TokenBucket(double permitsPerSecond, int capacity, long now) {
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @param now The current time in nanoseconds
+     * @return {@code true} if a permit was taken, {@code false} otherwise
+     */
+    public boolean tryAcquire(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the time until a permit is available.
+     *
+     * @param now The current time in nanoseconds
+     * @return The waiting time in nanoseconds, {@code 0} if a permit is available
+     */
+    public long nanosUntilAvailable(long now) {
+        refill(now);
+        return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / permitsPerNano);
+    }
+
+    /**
+     * Indicates whether all the permits are available, as for a new bucket.
+     *
+     * @param now The current time in nanoseconds
+     * @return {@code true} if the bucket is full, {@code false} otherwise
+     */
+    public boolean isFull(long now) {
+        refill(now);
+        return tokens >= capacity;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+
+}
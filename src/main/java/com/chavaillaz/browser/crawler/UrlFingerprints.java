@@ -0,0 +1,109 @@
+package com.chavaillaz.browser.crawler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Set of URLs already seen, storing only a 64 bits fingerprint of each URL in an open addressing table
+ * (16 to 32 bytes by URL instead of the whole string). Collisions between two different URLs are possible but
+ * negligible for the number of pages a crawler visits.
+ */
+public class UrlFingerprints {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private long[] table;
+    private int size;
+
+    /**
+     * Creates a new set of fingerprints.
+     *
+     * @param expectedSize The expected number of URLs, to avoid resizing the table
+     */
+    public UrlFingerprints(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.table = new long[capacity];
+    }
+
+    /**
+     * Adds a URL to the set.
+     *
+     * @param url The URL to add
+     * @return {@code true} if the URL was not already in the set, {@code false} otherwise
+     */
+    public synchronized boolean add(String url) {
+        if ((size + 1) * 2 > table.length) {
+            resize();
+        }
+        if (insert(table, fingerprint(url))) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a URL is in the set.
+     *
+     * @param url The URL to check
+     * @return {@code true} if the URL was already added, {@code false} otherwise
+     */
+    public synchronized boolean contains(String url) {
+        long fingerprint = fingerprint(url);
+        int mask = table.length - 1;
+        for (int index = (int) fingerprint & mask; table[index] != 0; index = (index + 1) & mask) {
+            if (table[index] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of URLs in the set.
+     *
+     * @return The number of URLs added
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private static boolean insert(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        int index = (int) fingerprint & mask;
+        while (table[index] != 0) {
+            if (table[index] == fingerprint) {
+                return false;
+            }
+            index = (index + 1) & mask;
+        }
+        table[index] = fingerprint;
+        return true;
+    }
+
+    private void resize() {
+        long[] resized = new long[table.length * 2];
+        for (long fingerprint : table) {
+            if (fingerprint != 0) {
+                insert(resized, fingerprint);
+            }
+        }
+        table = resized;
+    }
+
+    /**
+     * Computes the 64 bits FNV-1a hash of the URL, with a final mix to spread the bits used as table index.
+     * The value {@code 0} is reserved for empty slots.
+     */
+    static long fingerprint(String url) {
+        long hash = FNV_OFFSET;
+        for (byte value : url.getBytes(UTF_8)) {
+            hash ^= value;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+
+}
@@ -0,0 +1,273 @@
+package com.chavaillaz.browser.crawler;
+
+import static java.util.Comparator.comparingInt;
+import static java.util.Comparator.comparingLong;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queue of the URLs to visit by a crawler, giving the URL with the highest priority among the hosts allowed
+ * by their rate limit. URLs are normalized and visited only once. The number of queued URLs is bounded,
+ * blocking the producers when full.
+ */
+public class UrlFrontier {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final Map<String, Double> hostRates = new HashMap<>();
+    private final UrlFingerprints seen;
+    private final int capacity;
+    private double defaultRate = 1;
+    private int burst = 1;
+    private long sequence;
+    private int queued;
+    private int inFlight;
+    private long duplicates;
+    private long rejected;
+    private long overflows;
+    private long completed;
+
+    /**
+     * Creates a new frontier.
+     *
+     * @param capacity The maximum number of URLs waiting to be visited
+     */
+    public UrlFrontier(int capacity) {
+        this.capacity = capacity;
+        this.seen = new UrlFingerprints(capacity);
+    }
+
+    /**
+     * Sets the default rate limit of the hosts.
+     *
+     * @param permitsPerSecond The number of URLs of the same host given each second
+     * @param burst            The number of URLs of the same host that can be given at once
+     * @return The current frontier instance
+     */
+    public UrlFrontier withHostRate(double permitsPerSecond, int burst) {
+        this.defaultRate = permitsPerSecond;
+        this.burst = burst;
+        return this;
+    }
+
+    /**
+     * Sets the rate limit of a specific host.
+     *
+     * @param host             The host name
+     * @param permitsPerSecond The number of URLs of this host given each second
+     * @return The current frontier instance
+     */
+    public UrlFrontier withHostRate(String host, double permitsPerSecond) {
+        hostRates.put(host.toLowerCase(Locale.ROOT), permitsPerSecond);
+        return this;
+    }
+
+    /**
+     * Adds a URL to visit if not seen before, waiting for space if the frontier is full.
+     *
+     * @param url      The URL to add
+     * @param priority The priority of the URL, the highest being visited first
+     * @param depth    The number of links followed from the seed URLs
+     * @return {@code true} if the URL was added, {@code false} if invalid or already seen
+     * @throws InterruptedException If interrupted while waiting for space
+     */
+    public boolean put(String url, int priority, int depth) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queued >= capacity) {
+                notFull.await();
+            }
+            return add(url, priority, depth);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a URL to visit if not seen before and if the frontier is not full.
+     *
+     * @param url      The URL to add
+     * @param priority The priority of the URL, the highest being visited first
+     * @param depth    The number of links followed from the seed URLs
+     * @return {@code true} if the URL was added, {@code false} if invalid, already seen or the frontier is full
+     */
+    public boolean offer(String url, int priority, int depth) {
+        lock.lock();
+        try {
+            if (queued >= capacity) {
+                overflows++;
+                return false;
+            }
+            return add(url, priority, depth);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next URL to visit, waiting for one to be available and allowed by the rate limit of its host.
+     * The URL must then be marked as visited with {@link #complete(CrawlRequest)}.
+     *
+     * @param timeout The maximum time to wait
+     * @return The URL to visit, {@link Optional#empty()} if none is available before the timeout
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public Optional<CrawlRequest> poll(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                pruneIdleHosts(now);
+                Optional<HostQueue> ready = hosts.values().stream()
+                        .filter(host -> !host.requests.isEmpty() && host.bucket.nanosUntilAvailable(now) == 0)
+                        .max(comparingInt(HostQueue::headPriority)
+                                .thenComparing(comparingLong(HostQueue::headSequence).reversed()));
+                if (ready.isPresent()) {
+                    return Optional.of(dispatch(ready.get(), now));
+                }
+
+                long wait = Math.min(deadline - now, hosts.values().stream()
+                        .filter(host -> !host.requests.isEmpty())
+                        .mapToLong(host -> host.bucket.nanosUntilAvailable(now))
+                        .min()
+                        .orElse(Long.MAX_VALUE));
+                if (deadline - now <= 0) {
+                    return Optional.empty();
+                }
+                available.awaitNanos(wait);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a URL given by the frontier as visited.
+     *
+     * @param request The URL visited
+     */
+    public void complete(CrawlRequest request) {
+        lock.lock();
+        try {
+            inFlight--;
+            completed++;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indicates whether all the URLs have been visited.
+     *
+     * @return {@code true} if no URL is waiting or being visited, {@code false} otherwise
+     */
+    public boolean isDrained() {
+        lock.lock();
+        try {
+            return queued == 0 && inFlight == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the metrics of the frontier.
+     *
+     * @return The frontier metrics
+     */
+    public FrontierMetrics getMetrics() {
+        lock.lock();
+        try {
+            long waitingHosts = hosts.values().stream()
+                    .filter(host -> !host.requests.isEmpty())
+                    .count();
+            return new FrontierMetrics(queued, inFlight, (int) waitingHosts, seen.size(), duplicates, rejected,
+                    overflows, completed);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean add(String url, int priority, int depth) {
+        Optional<URI> normalized = UrlNormalizer.normalize(url);
+        if (normalized.isEmpty()) {
+            rejected++;
+            return false;
+        }
+
+        URI uri = normalized.get();
+        if (!seen.add(uri.toString())) {
+            duplicates++;
+            return false;
+        }
+
+        hosts.computeIfAbsent(uri.getHost(), this::createHostQueue)
+                .requests.add(new QueuedRequest(new CrawlRequest(uri, priority, depth), sequence++));
+        queued++;
+        available.signalAll();
+        return true;
+    }
+
+    private CrawlRequest dispatch(HostQueue host, long now) {
+        host.bucket.tryAcquire(now);
+        CrawlRequest request = host.requests.poll().request();
+        queued--;
+        inFlight++;
+        notFull.signalAll();
+        return request;
+    }
+
+    /**
+     * Removes the hosts without URLs waiting and whose rate limit is fully restored,
+     * as they are equivalent to new ones. This bounds the memory used by the hosts already visited.
+     *
+     * @param now The current time in nanoseconds
+     */
+    private void pruneIdleHosts(long now) {
+        hosts.values().removeIf(host -> host.requests.isEmpty() && host.bucket.isFull(now));
+    }
+
+    private HostQueue createHostQueue(String host) {
+        double rate = hostRates.getOrDefault(host, defaultRate);
+        return new HostQueue(new TokenBucket(rate, burst, System.nanoTime()));
+    }
+
+    private record QueuedRequest(CrawlRequest request, long sequence) {
+
+    }
+
+    private static class HostQueue {
+
+        private final PriorityQueue<QueuedRequest> requests = new PriorityQueue<>(
+                comparingInt((QueuedRequest queued) -> queued.request().priority()).reversed()
+                        .thenComparingLong(QueuedRequest::sequence));
+        private final TokenBucket bucket;
+
+        HostQueue(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+
+        int headPriority() {
+            return requests.peek().request().priority();
+        }
+
+        long headSequence() {
+            return requests.peek().sequence();
+        }
+
+    }
+
+}
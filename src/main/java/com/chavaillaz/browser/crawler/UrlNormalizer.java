@@ -0,0 +1,63 @@
+package com.chavaillaz.browser.crawler;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Normalization of URLs, so that different writings of the same page are considered equal.
+ */
+@UtilityClass
+public class UrlNormalizer {
+
+    /**
+     * Normalizes an absolute HTTP or HTTPS URL: lower case scheme and host, no default port, no fragment,
+     * resolved path segments and sorted query parameters.
+     *
+     * @param url The URL to normalize
+     * @return The normalized URL, {@link Optional#empty()} if the URL is invalid or not HTTP(S)
+     */
+    public static Optional<URI> normalize(String url) {
+        try {
+            URI uri = new URI(url.trim()).normalize();
+            String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+            if (!"http".equals(scheme) && !"https".equals(scheme) || uri.getHost() == null) {
+                return Optional.empty();
+            }
+
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            String query = uri.getRawQuery() == null || uri.getRawQuery().isEmpty() ? null : sortQuery(uri.getRawQuery());
+
+            StringBuilder builder = new StringBuilder()
+                    .append(scheme).append("://")
+                    .append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                builder.append(':').append(port);
+            }
+            builder.append(path);
+            if (query != null) {
+                builder.append('?').append(query);
+            }
+            return Optional.of(URI.create(builder.toString()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private static String sortQuery(String query) {
+        return Arrays.stream(query.split("&"))
+                .filter(parameter -> !parameter.isEmpty())
+                .sorted()
+                .collect(Collectors.joining("&"));
+    }
+
+}
@@ -3,22 +3,47 @@ package com.chavaillaz.browser.engine;
 import static java.awt.Toolkit.getDefaultToolkit;
 import static java.lang.Thread.currentThread;
 import static java.time.Duration.ofSeconds;
+import static java.util.Optional.ofNullable;
 import static javax.imageio.ImageIO.write;
 import static org.apache.commons.io.FileUtils.copyFile;
+import static org.openqa.selenium.OutputType.BYTES;
 import static org.openqa.selenium.OutputType.FILE;
 import static org.openqa.selenium.support.ui.ExpectedConditions.presenceOfElementLocated;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import com.chavaillaz.browser.exception.BrowserException;
+import com.chavaillaz.browser.metrics.PageMetrics;
+import com.chavaillaz.browser.network.NetworkMonitor;
+import com.chavaillaz.browser.network.NetworkResponse;
+import com.chavaillaz.browser.recording.ScreencastFormat;
+import com.chavaillaz.browser.recording.ScreencastRecorder;
+import com.chavaillaz.browser.screenshot.ScreenshotSink;
+import com.chavaillaz.browser.timeout.AdaptiveTimeouts;
+import com.chavaillaz.browser.tracing.Span;
+import com.chavaillaz.browser.tracing.Tracer;
+import com.chavaillaz.browser.tracing.TracingListener;
+import com.chavaillaz.browser.utils.BrowserUtils;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.By;
@@ -29,7 +54,9 @@ import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.devtools.DevTools;
 import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
@@ -38,7 +65,39 @@ import org.slf4j.Logger;
 @Getter
 public class AutomatedBrowser implements Closeable {
 
-    private final WebDriver driver;
+    public static final String SCRIPT_VISIBLE = "visible";
+    public static final int MAX_COLLECTED_PAGE_METRICS = 1000;
+
+    private final ScriptRegistry scriptRegistry = new ScriptRegistry()
+            .register(SCRIPT_VISIBLE, """
+                    var element = arguments[0],
+                        box = element.getBoundingClientRect(),
+                        cx = box.left + box.width / 2,
+                        cy = box.top + box.height / 2,
+                        e = document.elementFromPoint(cx, cy);
+                    for (; e; e = e.parentElement) {
+                        if (e === element)
+                            return true;
+                    }
+                    return false;
+                    """)
+            .register(CommandBatch.SCRIPT_BATCH, CommandBatch.SCRIPT)
+            .register(ScrollHarvester.SCRIPT_HARVEST, ScrollHarvester.SCRIPT);
+    private volatile WebDriver driver;
+    @Getter(AccessLevel.NONE)
+    private volatile WebDriver tracedDriver;
+    private Tracer tracer;
+    private DevTools devTools;
+    private ScreencastRecorder screencastRecorder;
+    private NetworkMonitor networkMonitor;
+    private ScreenshotSink screenshotSink;
+    private AdaptiveTimeouts adaptiveTimeouts;
+    @Getter(AccessLevel.NONE)
+    private final Deque<PageMetrics> collectedPageMetrics = new ArrayDeque<>();
+    private boolean pageMetricsCollection;
+    private volatile double collectedTimeOrigin;
+    @Getter(AccessLevel.NONE)
+    private final Set<Span> openFlowSpans = ConcurrentHashMap.newKeySet();
 
     /**
      * Creates an automated browser using the given driver.
@@ -49,6 +108,75 @@ public class AutomatedBrowser implements Closeable {
         this.driver = driver;
     }
 
+    /**
+     * Gets the driver of the browser, decorated to trace its calls when a tracer is set.
+     *
+     * @return The browser driver
+     */
+    public WebDriver getDriver() {
+        return tracedDriver != null ? tracedDriver : driver;
+    }
+
+    /**
+     * Gets the driver of the browser without tracing decoration, for calls that must not be part of the traces,
+     * such as the health probes done in background.
+     *
+     * @return The undecorated browser driver
+     */
+    public WebDriver getRawDriver() {
+        return driver;
+    }
+
+    /**
+     * Sets the tracer creating spans for the helpers of this instance and for the underlying driver calls.
+     * The flows using this instance also create spans for their run and for each of their steps.
+     * The span of a flow run is ended when completing or closing the flow, and at the latest when closing this instance.
+     *
+     * @param tracer The tracer to use, {@code null} to disable tracing
+     */
+    public void setTracer(Tracer tracer) {
+        this.tracer = tracer;
+        this.tracedDriver = tracer == null ? null : new EventFiringDecorator<>(new TracingListener(tracer))
+                .decorate(driver);
+    }
+
+    /**
+     * Sets the sink receiving the screenshots instead of writing them directly at their path.
+     * The sink is not closed with this instance, as it may be shared with other ones.
+     *
+     * @param screenshotSink The sink to use, {@code null} to write the screenshots directly at their path
+     */
+    public void setScreenshotSink(ScreenshotSink screenshotSink) {
+        this.screenshotSink = screenshotSink;
+    }
+
+    /**
+     * Sets the timeouts learned from the observed waits, used instead of 30 seconds when waiting without timeout.
+     * The durations of all the waits are then recorded, including the ones with an explicit timeout.
+     *
+     * @param adaptiveTimeouts The timeouts to use, {@code null} to always wait 30 seconds
+     */
+    public void setAdaptiveTimeouts(AdaptiveTimeouts adaptiveTimeouts) {
+        this.adaptiveTimeouts = adaptiveTimeouts;
+    }
+
+    /**
+     * Replaces the driver of the browser, for instance when its session crashed.
+     * The recording and the network monitor of the previous driver are stopped and its DevTools connection discarded.
+     * Note that the previous driver is not closed as it may be used somewhere else.
+     * This must be called by the thread using the browser, when no step is running.
+     *
+     * @param driver The new browser driver to use
+     */
+    public synchronized void replaceDriver(WebDriver driver) {
+        stopRecording();
+        ofNullable(networkMonitor).ifPresent(NetworkMonitor::close);
+        networkMonitor = null;
+        devTools = null;
+        this.driver = driver;
+        setTracer(tracer);
+    }
+
     /**
      * Changes the window size of the browser.
      *
@@ -59,6 +187,36 @@ public class AutomatedBrowser implements Closeable {
         getDriver().manage().window().setSize(new Dimension(width, height));
     }
 
+    /**
+     * Gets the Chrome DevTools Protocol connection of the browser.
+     * The connection is created at the first call and then reused.
+     *
+     * @return The DevTools connection
+     * @throws BrowserException If the driver does not support the Chrome DevTools Protocol
+     */
+    public synchronized DevTools getDevTools() {
+        if (devTools == null) {
+            devTools = BrowserUtils.getDevTools(driver);
+        }
+        return devTools;
+    }
+
+    /**
+     * Gets the monitor of the network and lifecycle events of the browser.
+     * The monitor is started at the first call and then reused. Note that only the requests sent after
+     * its start are tracked, so call it before navigating when waiting for the network to be idle.
+     * Note that this is only available for Chromium based browsers.
+     *
+     * @return The network monitor
+     * @throws BrowserException If the driver does not support the Chrome DevTools Protocol
+     */
+    public synchronized NetworkMonitor getNetworkMonitor() {
+        if (networkMonitor == null) {
+            networkMonitor = new NetworkMonitor(getDevTools()).start();
+        }
+        return networkMonitor;
+    }
+
     /**
      * Gets the logger.
      *
@@ -100,7 +258,7 @@ public class AutomatedBrowser implements Closeable {
      * @return The corresponding elements, an empty list if there is no one
      */
     public List<WebElement> getElements(By selector) {
-        return getDriver().findElements(selector);
+        return traced("getElements", () -> getDriver().findElements(selector));
     }
 
     /**
@@ -185,12 +343,21 @@ public class AutomatedBrowser implements Closeable {
      * @param url The web page to access
      */
     public void navigate(String url) {
-        log.debug("Navigating to {}", url);
-        getDriver().get(url);
+        traced("navigate", () -> {
+            log.debug("Navigating to {}", url);
+            ofNullable(tracer)
+                    .flatMap(Tracer::getActiveSpan)
+                    .ifPresent(span -> span.setAttribute("url.full", url));
+            getDriver().get(url);
+            if (pageMetricsCollection) {
+                collectPageMetrics();
+            }
+        });
     }
 
     /**
-     * Navigates to a web page and waits 30 seconds for an element to be present.
+     * Navigates to a web page and waits for an element to be present.
+     * The timeout is 30 seconds or the one learned for the selector when adaptive timeouts are set.
      *
      * @param url          The web page to access
      * @param waitSelector The selector of the element to wait for
@@ -202,23 +369,92 @@ public class AutomatedBrowser implements Closeable {
     }
 
     /**
-     * Waits 30 seconds for an element to be present.
+     * Waits for an element to be present.
+     * The timeout is 30 seconds or the one learned for the selector when adaptive timeouts are set.
      *
      * @param selector The element to wait for
      * @throws TimeoutException If the timeout expires
      */
     public void wait(By selector) {
-        wait(presenceOfElementLocated(selector));
+        wait(selector.toString(), presenceOfElementLocated(selector));
     }
 
     /**
-     * Waits 30 seconds for a condition to happen.
+     * Waits for a condition to happen.
+     * The timeout is 30 seconds or the one learned for the condition when adaptive timeouts are set,
+     * using the description of the condition as key.
      *
      * @param condition The condition to wait for
      * @throws TimeoutException If the timeout expires
      */
     public <E> void wait(ExpectedCondition<E> condition) {
-        wait(condition, 30);
+        wait(condition.toString(), condition);
+    }
+
+    /**
+     * Waits for a condition to happen.
+     * The timeout is 30 seconds or the one learned for the given key when adaptive timeouts are set.
+     *
+     * @param key       The key identifying the condition across calls (e.g. for lambdas)
+     * @param condition The condition to wait for
+     * @throws TimeoutException If the timeout expires
+     */
+    public <E> void wait(String key, ExpectedCondition<E> condition) {
+        Duration timeout = adaptiveTimeouts != null ? adaptiveTimeouts.getTimeout(key) : ofSeconds(30);
+        traced("wait", () -> waitFor(key, condition, timeout));
+    }
+
+    /**
+     * Waits until the browser has no more than the given number of requests in flight during the given time.
+     * The wait relies on the network events of the browser instead of polling it.
+     *
+     * @param maxInFlight The maximum number of requests in flight considered as idle
+     * @param idleTime    The time during which the network must stay idle
+     * @param timeout     The maximum time to wait
+     * @throws TimeoutException If the network is not idle before the timeout expires
+     */
+    public void waitForNetworkIdle(int maxInFlight, Duration idleTime, Duration timeout) {
+        NetworkMonitor monitor = getNetworkMonitor();
+        traced("waitForNetworkIdle", () -> monitor.awaitNetworkIdle(maxInFlight, idleTime, timeout));
+    }
+
+    /**
+     * Executes an action and waits for a response whose URL matches the given predicate.
+     * The wait relies on the network events of the browser instead of polling it.
+     *
+     * @param urlMatcher The predicate the URL of the response must match
+     * @param action     The action triggering the request (e.g. a click)
+     * @param timeout    The maximum time to wait
+     * @return The first matching response received after the action started
+     * @throws TimeoutException If no matching response is received before the timeout expires
+     */
+    public NetworkResponse waitForResponse(Predicate<String> urlMatcher, Runnable action, Duration timeout) {
+        CompletableFuture<NetworkResponse> response = getNetworkMonitor().expectResponse(urlMatcher);
+        try {
+            action.run();
+            return traced("waitForResponse", () -> NetworkMonitor.await(response, timeout, "matching response"));
+        } finally {
+            // Removes the expectation from the monitor when the action failed
+            response.cancel(false);
+        }
+    }
+
+    /**
+     * Executes an action and waits for the DOMContentLoaded event of the document it loads.
+     * The wait relies on the lifecycle events of the browser instead of polling it.
+     *
+     * @param action  The action triggering the navigation (e.g. a click on a link)
+     * @param timeout The maximum time to wait
+     * @throws TimeoutException If the event is not received before the timeout expires
+     */
+    public void waitForDomContentLoaded(Runnable action, Duration timeout) {
+        CompletableFuture<Void> loaded = getNetworkMonitor().expectDomContentLoaded();
+        try {
+            action.run();
+            traced("waitForDomContentLoaded", () -> NetworkMonitor.await(loaded, timeout, "DOMContentLoaded event"));
+        } finally {
+            loaded.cancel(false);
+        }
     }
 
     /**
@@ -229,7 +465,22 @@ public class AutomatedBrowser implements Closeable {
      * @throws TimeoutException If the timeout expires
      */
     public <E> void wait(ExpectedCondition<E> condition, int seconds) {
-        new WebDriverWait(getDriver(), ofSeconds(seconds)).until(condition);
+        traced("wait", () -> waitFor(condition.toString(), condition, ofSeconds(seconds)));
+    }
+
+    private <E> void waitFor(String key, ExpectedCondition<E> condition, Duration timeout) {
+        long start = System.nanoTime();
+        try {
+            new WebDriverWait(getDriver(), timeout).until(condition);
+        } catch (TimeoutException e) {
+            if (adaptiveTimeouts != null) {
+                adaptiveTimeouts.recordTimeout(key, timeout);
+            }
+            throw e;
+        }
+        if (adaptiveTimeouts != null) {
+            adaptiveTimeouts.recordSuccess(key, Duration.ofNanos(System.nanoTime() - start));
+        }
     }
 
     /**
@@ -261,18 +512,17 @@ public class AutomatedBrowser implements Closeable {
      * @return {@code true} if the center of the element is visible, {@code false} otherwise
      */
     public boolean visible(WebElement element) {
-        return (boolean) execute("""
-                var element = arguments[0],
-                    box = element.getBoundingClientRect(),
-                    cx = box.left + box.width / 2,
-                    cy = box.top + box.height / 2,
-                    e = document.elementFromPoint(cx, cy);
-                for (; e; e = e.parentElement) {
-                    if (e === element)
-                        return true;
-                }
-                return false;
-                """, element);
+        return (boolean) executePinned(SCRIPT_VISIBLE, element);
+    }
+
+    /**
+     * Creates a batch of operations executed together when flushing it, in order to reduce the round trips
+     * with the browser when doing multiple small interactions.
+     *
+     * @return The new batch of operations
+     */
+    public CommandBatch batch() {
+        return new CommandBatch(this);
     }
 
     /**
@@ -281,9 +531,11 @@ public class AutomatedBrowser implements Closeable {
      * @param actionsDescriptor The consumer calling the actions to execute
      */
     public void perform(Consumer<Actions> actionsDescriptor) {
-        Actions actions = new Actions(getDriver());
-        actionsDescriptor.accept(actions);
-        actions.perform();
+        traced("perform", () -> {
+            Actions actions = new Actions(getDriver());
+            actionsDescriptor.accept(actions);
+            actions.perform();
+        });
     }
 
     /**
@@ -294,8 +546,28 @@ public class AutomatedBrowser implements Closeable {
      * @return The returned value of the script
      */
     public Object execute(String script, Object... parameters) {
-        JavascriptExecutor js = ((JavascriptExecutor) getDriver());
-        return js.executeScript(script, parameters);
+        return traced("execute", () -> {
+            JavascriptExecutor js = ((JavascriptExecutor) getDriver());
+            return js.executeScript(script, parameters);
+        });
+    }
+
+    /**
+     * Executes a script pinned in the current loaded page.
+     * Only a short invocation is sent to the browser, unless the script is not yet installed in the document
+     * (e.g. after a navigation), in which case all the registered scripts are installed in the same call.
+     *
+     * @param name       The name of the script registered in the {@link ScriptRegistry}
+     * @param parameters The parameters to give to the script
+     * @return The returned value of the script
+     * @see #getScriptRegistry()
+     */
+    public Object executePinned(String name, Object... parameters) {
+        Object result = execute(scriptRegistry.getInvocation(name), parameters);
+        if (ScriptRegistry.MISSING.equals(result)) {
+            result = execute(scriptRegistry.getInstallation(name), parameters);
+        }
+        return result;
     }
 
     /**
@@ -306,7 +578,7 @@ public class AutomatedBrowser implements Closeable {
      * @throws NoSuchElementException If no matching element is found
      */
     public void send(By selector, CharSequence value) {
-        getDriver().findElement(selector).sendKeys(value);
+        traced("send", () -> getDriver().findElement(selector).sendKeys(value));
     }
 
     /**
@@ -316,7 +588,7 @@ public class AutomatedBrowser implements Closeable {
      * @throws NoSuchElementException If no matching element is found
      */
     public void click(By selector) {
-        getDriver().findElement(selector).click();
+        traced("click", () -> getDriver().findElement(selector).click());
     }
 
     /**
@@ -327,7 +599,7 @@ public class AutomatedBrowser implements Closeable {
      * @param vertical   The vertical amount of pixels to scroll
      */
     public void scroll(int horizontal, int vertical) {
-        execute("window.scrollBy(" + horizontal + ", " + vertical + ");");
+        execute("window.scrollBy(arguments[0], arguments[1]);", horizontal, vertical);
     }
 
     /**
@@ -404,6 +676,17 @@ public class AutomatedBrowser implements Closeable {
         execute("arguments[0].scrollIntoView(false);", element);
     }
 
+    /**
+     * Creates a harvester of the items of a page loading more content when scrolling (infinite scroll).
+     * Only the new items are returned after each scroll, instead of reading the whole list again.
+     *
+     * @param itemSelector The selector of the items to harvest
+     * @return The new harvester
+     */
+    public ScrollHarvester harvest(By itemSelector) {
+        return new ScrollHarvester(this, itemSelector);
+    }
+
     /**
      * Moves the mouse hover an element.
      *
@@ -423,12 +706,14 @@ public class AutomatedBrowser implements Closeable {
     }
 
     /**
-     * Highlights in yellow an element.
+     * Highlights in yellow all the elements matching the selector, in a single script call.
      *
-     * @param selector The selector of the element to highlight
+     * @param selector The selector of the elements to highlight
      */
     public void highlight(By selector) {
-        getElements(selector).forEach(this::highlight);
+        traced("highlight", () -> batch().highlight(selector)
+                .flush()
+                .throwOnFailure());
     }
 
     /**
@@ -457,15 +742,23 @@ public class AutomatedBrowser implements Closeable {
      * @param fullScreen Indicates whether the screenshot is taken for the whole screen or just for the browser window
      */
     public void screenshot(String path, boolean fullScreen) {
+        traced("screenshot", () -> takeScreenshot(path, fullScreen));
+    }
+
+    private void takeScreenshot(String path, boolean fullScreen) {
         try {
             // Wait for the browser to render changes (e.g. for highlighted elements)
             Thread.sleep(500);
 
+            if (screenshotSink != null) {
+                screenshotSink.accept(path, captureScreenshot(fullScreen));
+                log.debug("Screenshot {} handed to sink", path);
+                return;
+            }
+
             File targetFile = new File(path);
             if (fullScreen) {
-                Rectangle screen = new Rectangle(getDefaultToolkit().getScreenSize());
-                BufferedImage image = new Robot().createScreenCapture(screen);
-                write(image, "png", targetFile);
+                write(captureScreen(), "png", targetFile);
             } else {
                 File file = ((TakesScreenshot) getDriver()).getScreenshotAs(FILE);
                 copyFile(file, targetFile, true);
@@ -478,9 +771,180 @@ public class AutomatedBrowser implements Closeable {
         }
     }
 
+    private byte[] captureScreenshot(boolean fullScreen) throws AWTException, IOException {
+        if (fullScreen) {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            write(captureScreen(), "png", output);
+            return output.toByteArray();
+        }
+        return ((TakesScreenshot) getDriver()).getScreenshotAs(BYTES);
+    }
+
+    private static BufferedImage captureScreen() throws AWTException {
+        Rectangle screen = new Rectangle(getDefaultToolkit().getScreenSize());
+        return new Robot().createScreenCapture(screen);
+    }
+
+    /**
+     * Gets the performance metrics of the current loaded page, with a single script call.
+     *
+     * @return The metrics of the page
+     */
+    @SuppressWarnings("unchecked")
+    public PageMetrics getPageMetrics() {
+        return PageMetrics.of((Map<String, Object>) execute(PageMetrics.SCRIPT));
+    }
+
+    /**
+     * Enables or disables the collection of performance metrics after each navigation.
+     * The collected metrics are attached to the steps of the flows using this instance, which also collect them at
+     * the end of each step when the step loaded a new document without {@link #navigate(String)} (e.g. with a click).
+     *
+     * @param enabled {@code true} to collect the metrics, {@code false} otherwise
+     */
+    public void setPageMetricsCollection(boolean enabled) {
+        this.pageMetricsCollection = enabled;
+    }
+
+    /**
+     * Collects the performance metrics of the current loaded page.
+     * Only the last {@value #MAX_COLLECTED_PAGE_METRICS} collected metrics are kept until they are drained.
+     * Failures are only logged, in order to never interrupt the browsing because of the metrics collection.
+     */
+    public void collectPageMetrics() {
+        try {
+            PageMetrics metrics = getPageMetrics();
+            collectedTimeOrigin = metrics.timeOrigin();
+            synchronized (collectedPageMetrics) {
+                if (collectedPageMetrics.size() >= MAX_COLLECTED_PAGE_METRICS) {
+                    collectedPageMetrics.removeFirst();
+                }
+                collectedPageMetrics.addLast(metrics);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to collect page metrics", e);
+        }
+    }
+
+    /**
+     * Collects the performance metrics of the current loaded page if its collection is enabled and the page is not
+     * the last one collected, for instance when loaded by a click, a form submission or a redirection.
+     * The document is identified by its time origin, which is cheaper to get than the metrics themselves.
+     */
+    public void collectPageMetricsIfChanged() {
+        if (!pageMetricsCollection) {
+            return;
+        }
+        try {
+            if (execute(PageMetrics.TIME_ORIGIN_SCRIPT) instanceof Number origin
+                    && origin.doubleValue() != collectedTimeOrigin) {
+                collectPageMetrics();
+            }
+        } catch (Exception e) {
+            log.warn("Unable to check the current document", e);
+        }
+    }
+
+    /**
+     * Gets and removes the performance metrics collected since the last call.
+     *
+     * @return The collected metrics, in their collection order
+     */
+    public List<PageMetrics> drainPageMetrics() {
+        synchronized (collectedPageMetrics) {
+            List<PageMetrics> metrics = List.copyOf(collectedPageMetrics);
+            collectedPageMetrics.clear();
+            return metrics;
+        }
+    }
+
+    /**
+     * Starts recording the browser content with the default settings.
+     * Note that this is only available for Chromium based browsers.
+     *
+     * @param target The file or directory where to write the frames, depending on the format
+     * @param format The format in which to write the frames
+     * @return The recorder started
+     * @throws BrowserException If the recording cannot be started
+     */
+    public ScreencastRecorder startRecording(Path target, ScreencastFormat format) {
+        return startRecording(new ScreencastRecorder(getDevTools(), target, format));
+    }
+
+    /**
+     * Starts recording the browser content with the given recorder.
+     * Any recording previously started by this instance is stopped first.
+     *
+     * @param recorder The recorder to start
+     * @return The recorder started
+     * @throws BrowserException If the recording cannot be started
+     */
+    public ScreencastRecorder startRecording(ScreencastRecorder recorder) {
+        stopRecording();
+        screencastRecorder = recorder.start();
+        return screencastRecorder;
+    }
+
+    /**
+     * Stops the recording of the browser content, if any.
+     */
+    public void stopRecording() {
+        ofNullable(screencastRecorder).ifPresent(ScreencastRecorder::stop);
+        screencastRecorder = null;
+    }
+
+    /**
+     * Executes a helper in a span when a tracer is set.
+     *
+     * @param name   The name of the helper
+     * @param action The helper execution
+     * @param <T>    The type of the result of the helper
+     * @return The result of the helper
+     */
+    protected <T> T traced(String name, Supplier<T> action) {
+        return tracer == null ? action.get() : tracer.trace("AutomatedBrowser." + name, action);
+    }
+
+    /**
+     * Executes a helper in a span when a tracer is set.
+     *
+     * @param name   The name of the helper
+     * @param action The helper execution
+     */
+    protected void traced(String name, Runnable action) {
+        if (tracer == null) {
+            action.run();
+        } else {
+            tracer.trace("AutomatedBrowser." + name, action);
+        }
+    }
+
+    /**
+     * Keeps the span of a flow run using this instance until it ends, in order to end it when closing this instance.
+     *
+     * @param span The span of the flow run
+     */
+    void addFlowSpan(Span span) {
+        openFlowSpans.add(span);
+    }
+
+    /**
+     * Ends the span of a flow run using this instance.
+     *
+     * @param span The span of the flow run
+     */
+    void endFlowSpan(Span span) {
+        openFlowSpans.remove(span);
+        span.end();
+    }
+
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
         // Do not close the driver as it may be used somewhere else
+        openFlowSpans.forEach(this::endFlowSpan);
+        stopRecording();
+        ofNullable(networkMonitor).ifPresent(NetworkMonitor::close);
+        networkMonitor = null;
     }
 
 }
@@ -2,18 +2,38 @@ package com.chavaillaz.browser.engine;
 
 import static java.util.Optional.ofNullable;
 
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
+import com.chavaillaz.browser.checkpoint.Checkpoint;
+import com.chavaillaz.browser.checkpoint.CheckpointStore;
+import com.chavaillaz.browser.exception.BrowserException;
+import com.chavaillaz.browser.metrics.FlowMetrics;
+import com.chavaillaz.browser.metrics.StepMetrics;
+import com.chavaillaz.browser.tracing.Span;
+import com.chavaillaz.browser.tracing.SpanStatus;
+import com.chavaillaz.browser.tracing.Tracer;
 import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Cookie;
 import org.openqa.selenium.WebDriver;
 
 @Slf4j
-public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> {
+public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> implements AutoCloseable {
 
+    private final FlowMetrics metrics = new FlowMetrics();
     private final B automatedBrowser;
     private BiConsumer<Exception, C> defaultExceptionHandler;
     private C context;
+    private CheckpointStore checkpointStore;
+    private String flowId;
+    private Checkpoint resumeCheckpoint;
+    private boolean failed;
+    private boolean completed;
+    private Span flowSpan;
 
     /**
      * Creates a new automated browser flow.
@@ -45,6 +65,93 @@ public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> {
         return this;
     }
 
+    /**
+     * Enables the checkpoints of the flow, saved in the given store after the steps chosen with
+     * {@link #withCheckpoint(String)}. When a checkpoint of a previous run exists for this flow, the steps are
+     * skipped until reaching it, where the context and the browser state are restored.
+     * Note that the context must be {@link Serializable} to be saved.
+     *
+     * @param checkpointStore The storage of the checkpoints
+     * @param flowId          The identifier of the flow, the same across its runs
+     * @return The current flow instance
+     */
+    public AutomatedBrowserFlow<B, C> withCheckpoints(CheckpointStore checkpointStore, String flowId) {
+        this.checkpointStore = checkpointStore;
+        this.flowId = flowId;
+        this.resumeCheckpoint = checkpointStore.load(flowId).orElse(null);
+        if (resumeCheckpoint != null) {
+            log.info("Resuming flow {} from checkpoint {}", flowId, resumeCheckpoint.name());
+        }
+        return this;
+    }
+
+    /**
+     * Saves a checkpoint with the context and the browser state (URL and cookies), or restores it when resuming
+     * the flow from this checkpoint. The restoration is executed as a step of the flow, so that its failure is given
+     * to the default exception handler. The checkpoint is not saved if a previous step of the flow failed.
+     *
+     * @param name The name of the checkpoint, unique in the flow
+     * @return The current flow instance
+     * @throws BrowserException If the checkpoints are not enabled or the context cannot be saved
+     */
+    public AutomatedBrowserFlow<B, C> withCheckpoint(String name) {
+        if (checkpointStore == null) {
+            throw new BrowserException("Checkpoints are not enabled for this flow");
+        }
+
+        if (resumeCheckpoint != null) {
+            if (resumeCheckpoint.name().equals(name)) {
+                Checkpoint checkpoint = resumeCheckpoint;
+                resumeCheckpoint = null;
+                executeStep(() -> restoreCheckpoint(checkpoint), defaultExceptionHandler);
+            }
+        } else if (failed) {
+            log.warn("Checkpoint {} of flow {} not saved because of a failed step", name, flowId);
+        } else {
+            saveCheckpoint(name);
+        }
+        return this;
+    }
+
+    /**
+     * Completes the flow, removing its checkpoint when all the steps succeeded,
+     * so that the next run starts from the beginning. The checkpoint is also removed when it was never reached,
+     * as it no longer exists in the flow and would otherwise skip all its steps on every run.
+     * This also ends the span of the flow when tracing is enabled, which is otherwise ended when closing the
+     * automated browser. Calling it more than once has no effect.
+     *
+     * @return The current flow instance
+     */
+    public AutomatedBrowserFlow<B, C> complete() {
+        if (completed) {
+            return this;
+        }
+
+        completed = true;
+        if (resumeCheckpoint != null) {
+            log.warn("Checkpoint {} of flow {} never reached, removing it", resumeCheckpoint.name(), flowId);
+            checkpointStore.clear(flowId);
+            resumeCheckpoint = null;
+        } else if (checkpointStore != null && !failed) {
+            checkpointStore.clear(flowId);
+        }
+
+        if (flowSpan != null) {
+            automatedBrowser.endFlowSpan(flowSpan.setStatus(failed ? SpanStatus.ERROR : SpanStatus.OK));
+        }
+        return this;
+    }
+
+    /**
+     * Completes the flow, allowing to run it in a try-with-resources statement.
+     *
+     * @see #complete()
+     */
+    @Override
+    public void close() {
+        complete();
+    }
+
     /**
      * Sets the default exception handler when executing flow steps.
      *
@@ -75,12 +182,7 @@ public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> {
      * @return The current flow instance
      */
     public AutomatedBrowserFlow<B, C> withStep(BiConsumer<B, C> step, BiConsumer<Exception, C> exceptionHandler) {
-        try {
-            step.accept(automatedBrowser, context);
-        } catch (Exception e) {
-            handleException(exceptionHandler, e);
-        }
-        return this;
+        return executeStep(() -> step.accept(automatedBrowser, context), exceptionHandler);
     }
 
     /**
@@ -101,12 +203,7 @@ public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> {
      * @return The current flow instance
      */
     public AutomatedBrowserFlow<B, C> withStep(Consumer<B> step, BiConsumer<Exception, C> exceptionHandler) {
-        try {
-            step.accept(automatedBrowser);
-        } catch (Exception e) {
-            handleException(exceptionHandler, e);
-        }
-        return this;
+        return executeStep(() -> step.accept(automatedBrowser), exceptionHandler);
     }
 
     /**
@@ -127,12 +224,7 @@ public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> {
      * @return The current flow instance
      */
     public AutomatedBrowserFlow<B, C> withStep(Runnable step, BiConsumer<Exception, C> exceptionHandler) {
-        try {
-            step.run();
-        } catch (Exception e) {
-            handleException(exceptionHandler, e);
-        }
-        return this;
+        return executeStep(step, exceptionHandler);
     }
 
     /**
@@ -145,6 +237,129 @@ public class AutomatedBrowserFlow<B extends AutomatedBrowser, C> {
         return withStep(step, defaultExceptionHandler);
     }
 
+    /**
+     * Gets the metrics of the steps executed until now.
+     * Page metrics are only available when their collection is enabled in the automated browser.
+     *
+     * @return The flow metrics
+     * @see AutomatedBrowser#setPageMetricsCollection(boolean)
+     */
+    public FlowMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Executes a flow step and records its metrics.
+     *
+     * @param step             The step to execute
+     * @param exceptionHandler The exception handler to use, may be {@code null}
+     * @return The current flow instance
+     */
+    protected AutomatedBrowserFlow<B, C> executeStep(Runnable step, BiConsumer<Exception, C> exceptionHandler) {
+        if (resumeCheckpoint != null) {
+            log.debug("Step skipped until checkpoint {}", resumeCheckpoint.name());
+            return this;
+        }
+
+        int index = metrics.getSteps().size() + 1;
+        Span stepSpan = startStepSpan(index);
+        long start = System.nanoTime();
+        Exception exception = null;
+        try {
+            step.run();
+        } catch (Exception e) {
+            exception = e;
+        }
+
+        if (stepSpan != null) {
+            if (exception != null) {
+                stepSpan.recordException(exception);
+            }
+            stepSpan.end();
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        automatedBrowser.collectPageMetricsIfChanged();
+        metrics.addStep(new StepMetrics(index, duration, exception != null, automatedBrowser.drainPageMetrics()));
+
+        if (exception != null) {
+            failed = true;
+            if (flowSpan != null) {
+                flowSpan.setStatus(SpanStatus.ERROR);
+            }
+            handleException(exceptionHandler, exception);
+        }
+        return this;
+    }
+
+    /**
+     * Starts the span of a step when the automated browser has a tracer,
+     * as child of the span of the flow created with the first step as child of the active span.
+     *
+     * @param index The index of the step in the flow
+     * @return The span of the step, {@code null} if tracing is disabled
+     */
+    protected Span startStepSpan(int index) {
+        Tracer tracer = automatedBrowser.getTracer();
+        if (tracer == null) {
+            return null;
+        }
+
+        if (flowSpan == null) {
+            flowSpan = tracer.createSpan("AutomatedBrowserFlow", tracer.getActiveSpan().orElse(null))
+                    .setAttribute("flow.id", flowId)
+                    .setAttribute("flow.browser", automatedBrowser.getClass().getSimpleName());
+            automatedBrowser.addFlowSpan(flowSpan);
+        }
+        return tracer.startSpan("AutomatedBrowserFlow.step", flowSpan)
+                .setAttribute("flow.step.index", index);
+    }
+
+    /**
+     * Saves a checkpoint with the current context and browser state.
+     *
+     * @param name The name of the checkpoint
+     */
+    protected void saveCheckpoint(String name) {
+        if (context != null && !(context instanceof Serializable)) {
+            throw new BrowserException("Context " + context.getClass().getName() + " is not serializable");
+        }
+
+        WebDriver driver = automatedBrowser.getDriver();
+        Checkpoint checkpoint = new Checkpoint(
+                name,
+                (Serializable) context,
+                driver.getCurrentUrl(),
+                new HashSet<>(driver.manage().getCookies()),
+                Instant.now());
+        checkpointStore.save(flowId, checkpoint);
+        log.debug("Checkpoint {} of flow {} saved", name, flowId);
+    }
+
+    /**
+     * Restores the context and the browser state of a checkpoint.
+     *
+     * @param checkpoint The checkpoint to restore
+     */
+    @SuppressWarnings("unchecked")
+    protected void restoreCheckpoint(Checkpoint checkpoint) {
+        context = (C) checkpoint.context();
+
+        // Cookies can only be set for the domain of the current page
+        automatedBrowser.navigate(checkpoint.url());
+        WebDriver.Options options = automatedBrowser.getDriver().manage();
+        options.deleteAllCookies();
+        for (Cookie cookie : checkpoint.cookies()) {
+            try {
+                options.addCookie(cookie);
+            } catch (Exception e) {
+                log.warn("Unable to restore cookie {}", cookie.getName(), e);
+            }
+        }
+        automatedBrowser.navigate(checkpoint.url());
+        log.info("Flow {} restored from checkpoint {} at {}", flowId, checkpoint.name(), checkpoint.url());
+    }
+
     /**
      * Handles an exception during a browsing step.
      *
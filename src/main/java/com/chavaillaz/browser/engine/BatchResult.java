@@ -0,0 +1,60 @@
+package com.chavaillaz.browser.engine;
+
+import java.util.List;
+
+import com.chavaillaz.browser.exception.BrowserException;
+
+/**
+ * Result of the operations executed by a {@link CommandBatch}, in their order of execution.
+ *
+ * @param operations The result of each operation
+ */
+public record BatchResult(List<Operation> operations) {
+
+    /**
+     * Indicates whether all the operations have been executed successfully.
+     *
+     * @return {@code true} if no operation failed, {@code false} otherwise
+     */
+    public boolean isSuccessful() {
+        return getFailures().isEmpty();
+    }
+
+    /**
+     * Gets the operations that failed.
+     *
+     * @return The failed operations
+     */
+    public List<Operation> getFailures() {
+        return operations.stream()
+                .filter(operation -> operation.error() != null)
+                .toList();
+    }
+
+    /**
+     * Throws an exception if any operation failed.
+     *
+     * @return The current result instance
+     * @throws BrowserException If at least one operation failed
+     */
+    public BatchResult throwOnFailure() {
+        getFailures().stream()
+                .findFirst()
+                .ifPresent(failure -> {
+                    throw new BrowserException("Batch operation " + failure.name() + " failed: " + failure.error());
+                });
+        return this;
+    }
+
+    /**
+     * Result of an operation of a batch.
+     *
+     * @param index The position of the operation in the batch, starting at 0
+     * @param name  The name of the operation
+     * @param error The error message if the operation failed, {@code null} otherwise
+     */
+    public record Operation(int index, String name, String error) {
+
+    }
+
+}
@@ -0,0 +1,299 @@
+package com.chavaillaz.browser.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+
+/**
+ * Queue of operations executed together in order to reduce the number of round trips with the browser.
+ * Consecutive page operations are executed in a single script call and consecutive gestures are performed
+ * in a single combined {@link Actions}, keeping the order in which they were queued.
+ */
+@Slf4j
+public class CommandBatch {
+
+    public static final String SCRIPT_BATCH = "batch";
+
+    static final String SCRIPT = ScriptSelectors.RESOLVE_FUNCTION + """
+            var operations = {
+                highlight: function (e) { e.style.background = 'yellow'; },
+                scrollArea: function (e) { e.scrollTo(0, e.scrollHeight); },
+                alignTop: function (e) { e.scrollIntoView(true); },
+                alignCenter: function (e) { e.scrollIntoView({block: 'center'}); },
+                alignBottom: function (e) { e.scrollIntoView(false); },
+                scroll: function (e, horizontal, vertical) { window.scrollBy(horizontal, vertical); }
+            };
+            return arguments[0].map(function (operation) {
+                try {
+                    var elements = resolve(operation.target),
+                        action = operations[operation.name],
+                        parameters = operation.parameters || [];
+                    if (!operation.target) {
+                        action.apply(null, [null].concat(parameters));
+                    } else if (operation.all) {
+                        elements.forEach(function (e) { action.apply(null, [e].concat(parameters)); });
+                    } else if (elements.length > 0) {
+                        action.apply(null, [elements[0]].concat(parameters));
+                    }
+                    return null;
+                } catch (e) {
+                    return String(e && e.message || e);
+                }
+            });
+            """;
+
+    private final List<QueuedOperation> queue = new ArrayList<>();
+    private final AutomatedBrowser browser;
+
+    /**
+     * Creates a new batch of operations.
+     *
+     * @param browser The automated browser in which execute the operations
+     */
+    public CommandBatch(AutomatedBrowser browser) {
+        this.browser = browser;
+    }
+
+    /**
+     * Queues the highlighting in yellow of all the elements matching the selector.
+     *
+     * @param selector The selector of the elements to highlight
+     * @return The current batch instance
+     */
+    public CommandBatch highlight(By selector) {
+        return queueScript("highlight", ScriptSelectors.toTarget(browser, selector), true);
+    }
+
+    /**
+     * Queues the highlighting in yellow of an element.
+     *
+     * @param element The element to highlight
+     * @return The current batch instance
+     */
+    public CommandBatch highlight(WebElement element) {
+        return queueScript("highlight", ScriptSelectors.toTarget(element), true);
+    }
+
+    /**
+     * Queues the scroll to the end of the first element matching the selector.
+     *
+     * @param selector The selector of the element to scroll to the end
+     * @return The current batch instance
+     */
+    public CommandBatch scrollArea(By selector) {
+        return queueScript("scrollArea", ScriptSelectors.toTarget(browser, selector), false);
+    }
+
+    /**
+     * Queues the scroll to the end of an element.
+     *
+     * @param element The element to scroll to the end
+     * @return The current batch instance
+     */
+    public CommandBatch scrollArea(WebElement element) {
+        return queueScript("scrollArea", ScriptSelectors.toTarget(element), false);
+    }
+
+    /**
+     * Queues the alignment of the top of the first element matching the selector to the top of the visible area.
+     *
+     * @param selector The selector of the element to align
+     * @return The current batch instance
+     */
+    public CommandBatch alignTop(By selector) {
+        return queueScript("alignTop", ScriptSelectors.toTarget(browser, selector), false);
+    }
+
+    /**
+     * Queues the alignment of the top of an element to the top of the visible area.
+     *
+     * @param element The element to align
+     * @return The current batch instance
+     */
+    public CommandBatch alignTop(WebElement element) {
+        return queueScript("alignTop", ScriptSelectors.toTarget(element), false);
+    }
+
+    /**
+     * Queues the alignment of the center of the first element matching the selector to the center of the visible area.
+     *
+     * @param selector The selector of the element to align
+     * @return The current batch instance
+     */
+    public CommandBatch alignCenter(By selector) {
+        return queueScript("alignCenter", ScriptSelectors.toTarget(browser, selector), false);
+    }
+
+    /**
+     * Queues the alignment of the center of an element to the center of the visible area.
+     *
+     * @param element The element to align
+     * @return The current batch instance
+     */
+    public CommandBatch alignCenter(WebElement element) {
+        return queueScript("alignCenter", ScriptSelectors.toTarget(element), false);
+    }
+
+    /**
+     * Queues the alignment of the bottom of the first element matching the selector to the bottom of the visible area.
+     *
+     * @param selector The selector of the element to align
+     * @return The current batch instance
+     */
+    public CommandBatch alignBottom(By selector) {
+        return queueScript("alignBottom", ScriptSelectors.toTarget(browser, selector), false);
+    }
+
+    /**
+     * Queues the alignment of the bottom of an element to the bottom of the visible area.
+     *
+     * @param element The element to align
+     * @return The current batch instance
+     */
+    public CommandBatch alignBottom(WebElement element) {
+        return queueScript("alignBottom", ScriptSelectors.toTarget(element), false);
+    }
+
+    /**
+     * Queues a scroll of the page by a certain amount of pixels.
+     *
+     * @param horizontal The horizontal amount of pixels to scroll
+     * @param vertical   The vertical amount of pixels to scroll
+     * @return The current batch instance
+     */
+    public CommandBatch scroll(int horizontal, int vertical) {
+        Map<String, Object> operation = new HashMap<>();
+        operation.put("name", "scroll");
+        operation.put("parameters", List.of(horizontal, vertical));
+        queue.add(new QueuedOperation("scroll", operation, null));
+        return this;
+    }
+
+    /**
+     * Queues a move of the mouse hover the first element matching the selector.
+     * Note that the element is searched when flushing the batch, as gestures need an element reference.
+     *
+     * @param selector The selector of the element to move to
+     * @return The current batch instance
+     */
+    public CommandBatch hover(By selector) {
+        return perform("hover", actions -> browser.getElement(selector).ifPresent(actions::moveToElement));
+    }
+
+    /**
+     * Queues a move of the mouse hover an element.
+     *
+     * @param element The element to move to
+     * @return The current batch instance
+     */
+    public CommandBatch hover(WebElement element) {
+        return perform("hover", actions -> actions.moveToElement(element));
+    }
+
+    /**
+     * Queues gestures to perform with other consecutive gestures.
+     *
+     * @param actionsDescriptor The consumer calling the actions to execute
+     * @return The current batch instance
+     */
+    public CommandBatch perform(Consumer<Actions> actionsDescriptor) {
+        return perform("perform", actionsDescriptor);
+    }
+
+    /**
+     * Gets the number of operations waiting to be executed.
+     *
+     * @return The number of queued operations
+     */
+    public int size() {
+        return queue.size();
+    }
+
+    /**
+     * Executes all the queued operations in their order and empties the queue.
+     * An operation failing does not prevent the next ones to be executed. When combined gestures fail,
+     * the error is reported for all the gestures performed together.
+     *
+     * @return The result of each operation
+     */
+    public BatchResult flush() {
+        List<QueuedOperation> operations = List.copyOf(queue);
+        queue.clear();
+
+        List<BatchResult.Operation> results = new ArrayList<>();
+        int start = 0;
+        while (start < operations.size()) {
+            boolean gesture = operations.get(start).isGesture();
+            int end = start;
+            while (end < operations.size() && operations.get(end).isGesture() == gesture) {
+                end++;
+            }
+            List<QueuedOperation> segment = operations.subList(start, end);
+            List<String> errors = gesture ? performGestures(segment) : executeScripts(segment);
+            for (int i = 0; i < segment.size(); i++) {
+                results.add(new BatchResult.Operation(start + i, segment.get(i).name(), errors.get(i)));
+            }
+            start = end;
+        }
+        return new BatchResult(results);
+    }
+
+    private CommandBatch queueScript(String name, Map<String, Object> target, boolean all) {
+        Map<String, Object> operation = new HashMap<>();
+        operation.put("name", name);
+        operation.put("target", target);
+        operation.put("all", all);
+        queue.add(new QueuedOperation(name, operation, null));
+        return this;
+    }
+
+    private CommandBatch perform(String name, Consumer<Actions> actionsDescriptor) {
+        queue.add(new QueuedOperation(name, null, actionsDescriptor));
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> executeScripts(List<QueuedOperation> segment) {
+        try {
+            List<Map<String, Object>> operations = segment.stream()
+                    .map(QueuedOperation::script)
+                    .toList();
+            return (List<String>) browser.executePinned(SCRIPT_BATCH, operations);
+        } catch (Exception e) {
+            log.debug("Batch script failed", e);
+            return errors(segment, e);
+        }
+    }
+
+    private List<String> performGestures(List<QueuedOperation> segment) {
+        try {
+            browser.perform(actions -> segment.forEach(operation -> operation.gesture().accept(actions)));
+            return errors(segment, null);
+        } catch (Exception e) {
+            log.debug("Batch gestures failed", e);
+            return errors(segment, e);
+        }
+    }
+
+    private static List<String> errors(List<QueuedOperation> segment, Exception exception) {
+        List<String> errors = new ArrayList<>();
+        segment.forEach(operation -> errors.add(exception == null ? null : String.valueOf(exception.getMessage())));
+        return errors;
+    }
+
+    private record QueuedOperation(String name, Map<String, Object> script, Consumer<Actions> gesture) {
+
+        boolean isGesture() {
+            return gesture != null;
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package com.chavaillaz.browser.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.chavaillaz.browser.exception.BrowserException;
+
+/**
+ * Registry of scripts pinned in the pages as a table of functions, in order to send their source only once per
+ * document. Scripts are then called by their name and are installed again when the table is missing in the page
+ * (e.g. after a navigation).
+ */
+public class ScriptRegistry {
+
+    /**
+     * Name of the global variable holding the table of pinned functions in the page.
+     */
+    public static final String TABLE = "__automatedBrowserScripts";
+
+    /**
+     * Value returned by the invocation of a script not installed in the page.
+     */
+    static final String MISSING = "__automatedBrowserScriptMissing";
+
+    private final Map<String, String> scripts = new ConcurrentHashMap<>();
+    private final Map<String, String> invocations = new ConcurrentHashMap<>();
+    private volatile String installation;
+
+    /**
+     * Registers a script to pin in the pages.
+     * The script is the body of a function receiving its parameters in {@code arguments}.
+     *
+     * @param name   The name of the script, used to call it
+     * @param script The source of the script
+     * @return The current registry instance
+     */
+    public ScriptRegistry register(String name, String script) {
+        scripts.put(name, script);
+        invocations.put(name, "var f = window." + TABLE + " && " + TABLE + "['" + name + "'];"
+                + "return f ? f.apply(null, arguments) : '" + MISSING + "';");
+        installation = null;
+        return this;
+    }
+
+    /**
+     * Indicates whether a script is registered.
+     *
+     * @param name The name of the script
+     * @return {@code true} if the script is registered, {@code false} otherwise
+     */
+    public boolean contains(String name) {
+        return scripts.containsKey(name);
+    }
+
+    /**
+     * Gets the short script calling the given pinned script in the page.
+     * It returns {@link #MISSING} when the script is not installed in the current document.
+     *
+     * @param name The name of the script
+     * @return The invocation script
+     * @throws BrowserException If no script is registered with this name
+     */
+    public String getInvocation(String name) {
+        String invocation = invocations.get(name);
+        if (invocation == null) {
+            throw new BrowserException("No script registered with name " + name);
+        }
+        return invocation;
+    }
+
+    /**
+     * Gets the script installing all the registered scripts in the page and then calling the given one.
+     *
+     * @param name The name of the script to call after the installation
+     * @return The installation script
+     */
+    public String getInstallation(String name) {
+        return getInstallation() + getInvocation(name);
+    }
+
+    private String getInstallation() {
+        String script = installation;
+        if (script == null) {
+            StringBuilder builder = new StringBuilder("var t = window." + TABLE + " = {};\n");
+            scripts.forEach((name, source) -> builder
+                    .append("t['").append(name).append("'] = function () {\n")
+                    .append(source)
+                    .append("\n};\n"));
+            script = builder.toString();
+            installation = script;
+        }
+        return script;
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.chavaillaz.browser.engine;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.experimental.UtilityClass;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Conversion of selectors and elements to targets resolved directly in the page by scripts,
+ * in order to avoid a round trip to find elements before acting on them.
+ */
+@UtilityClass
+class ScriptSelectors {
+
+    /**
+     * Script function {@code resolve(target)} returning the list of elements corresponding to a target.
+     */
+    static final String RESOLVE_FUNCTION = """
+            function resolve(target) {
+                if (!target) return [];
+                if (target.elements) return target.elements;
+                var value = target.value, root = document, result = [];
+                if (target.using === 'css selector') return Array.from(root.querySelectorAll(value));
+                if (target.using === 'xpath') {
+                    var snapshot = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                    for (var i = 0; i < snapshot.snapshotLength; i++) result.push(snapshot.snapshotItem(i));
+                    return result;
+                }
+                if (target.using === 'link text' || target.using === 'partial link text') {
+                    return Array.from(root.querySelectorAll('a')).filter(function (link) {
+                        var text = link.innerText.trim();
+                        return target.using === 'link text' ? text === value : text.indexOf(value) >= 0;
+                    });
+                }
+                throw new Error('Unsupported selector ' + target.using);
+            }
+            """;
+
+    private static final Set<String> SCRIPT_STRATEGIES = Set.of("css selector", "xpath", "link text", "partial link text");
+
+    /**
+     * Converts a selector to a target resolved in the page.
+     * Selectors by identifier, name, class name and tag name are converted to CSS selectors,
+     * and selectors that cannot be resolved by a script are resolved with the driver.
+     *
+     * @param browser  The browser used to resolve the selector if necessary
+     * @param selector The selector to convert
+     * @return The target to give to the {@link #RESOLVE_FUNCTION}
+     */
+    static Map<String, Object> toTarget(AutomatedBrowser browser, By selector) {
+        Map<String, Object> target = new HashMap<>();
+        if (selector instanceof By.Remotable remotable) {
+            By.Remotable.Parameters parameters = remotable.getRemoteParameters();
+            String value = String.valueOf(parameters.value());
+            String css = switch (parameters.using()) {
+                case "id" -> "[id=" + toCssString(value) + "]";
+                case "name" -> "[name=" + toCssString(value) + "]";
+                case "class name" -> "[class~=" + toCssString(value) + "]";
+                case "tag name" -> value;
+                default -> null;
+            };
+            if (css != null) {
+                target.put("using", "css selector");
+                target.put("value", css);
+                return target;
+            } else if (SCRIPT_STRATEGIES.contains(parameters.using())) {
+                target.put("using", parameters.using());
+                target.put("value", value);
+                return target;
+            }
+        }
+        target.put("elements", browser.getElements(selector));
+        return target;
+    }
+
+    private static String toCssString(String value) {
+        return '"' + value.replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\a ") + '"';
+    }
+
+    /**
+     * Converts an element to a target resolved in the page.
+     *
+     * @param element The element to convert
+     * @return The target to give to the {@link #RESOLVE_FUNCTION}
+     */
+    static Map<String, Object> toTarget(WebElement element) {
+        return Map.of("elements", List.of(element));
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.chavaillaz.browser.engine;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.By;
+
+/**
+ * Harvester of the items of a page loading more content when scrolling (infinite scroll).
+ * Each round marks the items harvested in the page, remembers the position of the last one, returns only the new
+ * items after it and scrolls to load more, so that the cost of a round does not grow with the number of items
+ * already harvested. The items are only queried again when elements were added to or removed from the page.
+ */
+@Slf4j
+public class ScrollHarvester {
+
+    public static final String SCRIPT_HARVEST = "harvest";
+
+    static final String SCRIPT = ScriptSelectors.RESOLVE_FUNCTION + """
+            var target = arguments[0],
+                property = arguments[1],
+                prune = arguments[2],
+                limit = arguments[3],
+                key = arguments[4],
+                marker = 'data-automated-browser-harvested',
+                state = window.__automatedBrowserHarvest || (window.__automatedBrowserHarvest = {}),
+                harvest = state[key] || (state[key] = {start: 0}),
+                observed = !target.elements,
+                result = [],
+                items,
+                i;
+            // Items are only queried again when elements were added or removed in the page since the previous round
+            if (observed && !harvest.observer) {
+                harvest.observer = new MutationObserver(function () {
+                    harvest.changed = true;
+                });
+                harvest.observer.observe(document, {childList: true, subtree: true});
+                harvest.changed = true;
+            }
+            var pending = observed && harvest.observer.takeRecords().length > 0;
+            if (!observed || harvest.changed || pending) {
+                harvest.items = resolve(target);
+                harvest.changed = false;
+            }
+            items = harvest.items;
+            var start = harvest.start;
+            // Start after the last harvested item, unless the page changed since the previous round
+            if (start > items.length || (start > 0 && !items[start - 1].hasAttribute(marker))) {
+                start = 0;
+            }
+            for (i = start; i < items.length; i++) {
+                var item = items[i];
+                if (!item.hasAttribute(marker)) {
+                    if (result.length >= limit) {
+                        break;
+                    }
+                    var value = item[property];
+                    item.setAttribute(marker, '');
+                    result.push(value === undefined || value === null ? null : String(value));
+                }
+            }
+            var last = items[i - 1];
+            if (prune && i > 1) {
+                for (var j = 0; j < i - 1; j++) {
+                    items[j].remove();
+                }
+                harvest.items = items.slice(i - 1);
+                if (observed) {
+                    // Discards the removals done above, as the remaining items are already known
+                    harvest.observer.takeRecords();
+                }
+            }
+            harvest.start = prune ? Math.min(i, 1) : i;
+            if (last) {
+                last.scrollIntoView(false);
+            }
+            window.scrollTo(0, document.scrollingElement.scrollHeight);
+            return result;
+            """;
+
+    private final AutomatedBrowser browser;
+    private final By itemSelector;
+    private final String key = UUID.randomUUID().toString();
+    private String property = "innerText";
+    private boolean pruning;
+    private int maxItems = Integer.MAX_VALUE;
+    private int maxRounds = Integer.MAX_VALUE;
+    private int maxIdleRounds = 3;
+    private Duration settleDelay = Duration.ofMillis(500);
+
+    /**
+     * Creates a new harvester.
+     *
+     * @param browser      The automated browser in which the page is loaded
+     * @param itemSelector The selector of the items to harvest
+     */
+    public ScrollHarvester(AutomatedBrowser browser, By itemSelector) {
+        this.browser = browser;
+        this.itemSelector = itemSelector;
+    }
+
+    /**
+     * Sets the property of the items to harvest. Defaults to {@code innerText}.
+     *
+     * @param property The property of the element (e.g. {@code outerHTML}, {@code href}, {@code textContent})
+     * @return The current harvester instance
+     */
+    public ScrollHarvester withProperty(String property) {
+        this.property = property;
+        return this;
+    }
+
+    /**
+     * Sets whether the harvested items are removed from the page, to keep the memory of the browser stable.
+     * The last harvested item is kept as anchor for the scroll. Note that it may break pages expecting the items
+     * to stay in the page.
+     *
+     * @param pruning {@code true} to remove the harvested items, {@code false} otherwise
+     * @return The current harvester instance
+     */
+    public ScrollHarvester withPruning(boolean pruning) {
+        this.pruning = pruning;
+        return this;
+    }
+
+    /**
+     * Sets the limits of the harvest.
+     *
+     * @param maxItems  The maximum number of items to harvest
+     * @param maxRounds The maximum number of scrolls
+     * @return The current harvester instance
+     */
+    public ScrollHarvester withLimits(int maxItems, int maxRounds) {
+        this.maxItems = maxItems;
+        this.maxRounds = maxRounds;
+        return this;
+    }
+
+    /**
+     * Sets when the page is considered exhausted.
+     *
+     * @param maxIdleRounds The number of consecutive rounds without new items after which the harvest stops
+     * @param settleDelay   The time given to the page to load new items after each scroll
+     * @return The current harvester instance
+     */
+    public ScrollHarvester withExhaustion(int maxIdleRounds, Duration settleDelay) {
+        this.maxIdleRounds = maxIdleRounds;
+        this.settleDelay = settleDelay;
+        return this;
+    }
+
+    /**
+     * Harvests the items, giving the new items of each round to the consumer.
+     *
+     * @param consumer The consumer of the new items of each round
+     * @return The total number of items harvested
+     */
+    public int harvest(Consumer<List<String>> consumer) {
+        int[] total = {0};
+        stream().forEach(items -> {
+            total[0] += items.size();
+            consumer.accept(items);
+        });
+        return total[0];
+    }
+
+    /**
+     * Gets the stream of the new items of each round. Rounds are executed lazily when consuming the stream.
+     * Rounds without new items are not part of the stream.
+     *
+     * @return The stream of the new items of each round
+     */
+    public Stream<List<String>> stream() {
+        Spliterator<List<String>> rounds = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+
+            private int round;
+            private int idleRounds;
+            private int harvested;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super List<String>> action) {
+                while (round < maxRounds && harvested < maxItems && idleRounds < maxIdleRounds) {
+                    List<String> items = harvestRound(maxItems - harvested, round++ > 0);
+                    if (items.isEmpty()) {
+                        idleRounds++;
+                    } else {
+                        idleRounds = 0;
+                        harvested += items.size();
+                        action.accept(items);
+                        return true;
+                    }
+                }
+                log.debug("Harvest of {} finished after {} rounds with {} items", itemSelector, round, harvested);
+                return false;
+            }
+
+        };
+        return StreamSupport.stream(rounds, false);
+    }
+
+    /**
+     * Gets the stream of all the items harvested.
+     *
+     * @return The stream of the items
+     */
+    public Stream<String> items() {
+        return stream().flatMap(List::stream);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> harvestRound(int limit, boolean settle) {
+        if (settle && !settleDelay.isZero()) {
+            try {
+                Thread.sleep(settleDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return List.of();
+            }
+        }
+        Map<String, Object> target = ScriptSelectors.toTarget(browser, itemSelector);
+        Object result = browser.executePinned(SCRIPT_HARVEST, target, property, pruning, limit, key);
+        return result instanceof List<?> list ? new ArrayList<>((List<String>) list) : List.of();
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.chavaillaz.browser.grid;
+
+import java.net.URL;
+import java.time.Duration;
+
+/**
+ * Metrics of a remote endpoint.
+ *
+ * @param url                    The URL of the endpoint
+ * @param capacity               The maximum number of sessions running at the same time
+ * @param activeSessions         The number of sessions currently running
+ * @param healthy                Indicates whether the last health check succeeded
+ * @param ejected                Indicates whether the endpoint is currently ejected after failures
+ * @param createdSessions        The number of sessions successfully created
+ * @param failedSessions         The number of sessions that could not be created
+ * @param averageCreationLatency The average time spent creating a session
+ * @param healthCheckLatency     The time spent by the last health check
+ */
+public record EndpointMetrics(
+        URL url,
+        int capacity,
+        int activeSessions,
+        boolean healthy,
+        boolean ejected,
+        long createdSessions,
+        long failedSessions,
+        Duration averageCreationLatency,
+        Duration healthCheckLatency) {
+
+}
@@ -0,0 +1,123 @@
+package com.chavaillaz.browser.grid;
+
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.Getter;
+
+/**
+ * Remote WebDriver or Selenium Grid endpoint on which sessions can be created, with its load and health state.
+ */
+public class RemoteEndpoint {
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong createdSessions = new AtomicLong();
+    private final AtomicLong failedSessions = new AtomicLong();
+    private final AtomicLong creationNanos = new AtomicLong();
+    @Getter
+    private final URL url;
+    @Getter
+    private final int capacity;
+    private volatile boolean healthy = true;
+    private volatile Instant ejectedUntil = Instant.MIN;
+    private volatile Duration lastHealthCheckLatency = Duration.ZERO;
+
+    /**
+     * Creates a new remote endpoint.
+     *
+     * @param url      The URL of the remote WebDriver or Grid
+     * @param capacity The maximum number of sessions running at the same time on the endpoint
+     * @throws BrowserException If the capacity is not positive
+     */
+    public RemoteEndpoint(URL url, int capacity) {
+        if (capacity <= 0) {
+            throw new BrowserException("Capacity of endpoint " + url + " must be positive: " + capacity);
+        }
+        this.url = url;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Indicates whether new sessions can be created on the endpoint.
+     *
+     * @param now The current time
+     * @return {@code true} if the endpoint is healthy, not ejected and not full, {@code false} otherwise
+     */
+    boolean isAvailable(Instant now) {
+        return healthy && !now.isBefore(ejectedUntil) && activeSessions.get() < capacity;
+    }
+
+    /**
+     * Gets the load of the endpoint, as the ratio of active sessions on its capacity.
+     *
+     * @return The load from 0 (idle) to 1 (full)
+     */
+    double getLoad() {
+        return (double) activeSessions.get() / capacity;
+    }
+
+    /**
+     * Gets the average time spent creating a session on the endpoint.
+     *
+     * @return The average creation latency, {@link Duration#ZERO} if no session was created yet
+     */
+    Duration getAverageCreationLatency() {
+        long created = createdSessions.get();
+        return created == 0 ? Duration.ZERO : Duration.ofNanos(creationNanos.get() / created);
+    }
+
+    void reserve() {
+        activeSessions.incrementAndGet();
+    }
+
+    void release() {
+        activeSessions.decrementAndGet();
+    }
+
+    void recordSuccess(Duration latency) {
+        createdSessions.incrementAndGet();
+        creationNanos.addAndGet(latency.toNanos());
+        consecutiveFailures.set(0);
+    }
+
+    int recordFailure() {
+        failedSessions.incrementAndGet();
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    void eject(Instant until) {
+        ejectedUntil = until;
+    }
+
+    void recordHealth(boolean healthy, Duration latency) {
+        this.healthy = healthy;
+        this.lastHealthCheckLatency = latency;
+        if (healthy) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * Gets a snapshot of the metrics of the endpoint.
+     *
+     * @return The endpoint metrics
+     */
+    public EndpointMetrics getMetrics() {
+        return new EndpointMetrics(
+                url,
+                capacity,
+                activeSessions.get(),
+                healthy,
+                Instant.now().isBefore(ejectedUntil),
+                createdSessions.get(),
+                failedSessions.get(),
+                getAverageCreationLatency(),
+                lastHealthCheckLatency);
+    }
+
+}
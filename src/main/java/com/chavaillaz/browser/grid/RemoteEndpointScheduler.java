@@ -0,0 +1,256 @@
+package com.chavaillaz.browser.grid;
+
+import static java.util.Comparator.comparingDouble;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+/**
+ * Scheduler creating sessions on the least loaded of multiple remote WebDriver or Selenium Grid endpoints.
+ * Endpoints failing to create sessions or to answer health checks are ejected for a while.
+ */
+@Slf4j
+public class RemoteEndpointScheduler implements Closeable {
+
+    private final List<RemoteEndpoint> endpoints = new CopyOnWriteArrayList<>();
+    private final HttpClient statusClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private BiFunction<URL, Capabilities, WebDriver> sessionFactory = RemoteWebDriver::new;
+    private Predicate<URL> healthCheck = this::isReady;
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+    private int maxConsecutiveFailures = 3;
+    private ScheduledExecutorService healthCheckExecutor;
+
+    /**
+     * Sets the factory creating a session on an endpoint.
+     * Defaults to the creation of a {@link RemoteWebDriver}.
+     *
+     * @param sessionFactory The function creating a driver for the given endpoint URL and capabilities
+     * @return The current scheduler instance
+     */
+    public RemoteEndpointScheduler withSessionFactory(BiFunction<URL, Capabilities, WebDriver> sessionFactory) {
+        this.sessionFactory = sessionFactory;
+        return this;
+    }
+
+    /**
+     * Sets the health check of the endpoints.
+     * Defaults to the status endpoint of the WebDriver specification reporting to be ready.
+     *
+     * @param healthCheck The predicate indicating whether the endpoint with the given URL is healthy
+     * @return The current scheduler instance
+     */
+    public RemoteEndpointScheduler withHealthCheck(Predicate<URL> healthCheck) {
+        this.healthCheck = healthCheck;
+        return this;
+    }
+
+    /**
+     * Sets when and for how long an endpoint is ejected after failures.
+     *
+     * @param maxConsecutiveFailures The number of consecutive failures after which the endpoint is ejected
+     * @param ejectionDuration       The duration during which no session is created on the ejected endpoint
+     * @return The current scheduler instance
+     */
+    public RemoteEndpointScheduler withEjection(int maxConsecutiveFailures, Duration ejectionDuration) {
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+        this.ejectionDuration = ejectionDuration;
+        return this;
+    }
+
+    /**
+     * Registers an endpoint on which sessions can be created.
+     *
+     * @param url      The URL of the remote WebDriver or Grid
+     * @param capacity The maximum number of sessions running at the same time on the endpoint
+     * @return The current scheduler instance
+     * @throws BrowserException If the capacity is not positive
+     */
+    public RemoteEndpointScheduler withEndpoint(URL url, int capacity) {
+        endpoints.add(new RemoteEndpoint(url, capacity));
+        return this;
+    }
+
+    /**
+     * Gets the registered endpoints.
+     *
+     * @return The endpoints in their registration order
+     */
+    public List<RemoteEndpoint> getEndpoints() {
+        return List.copyOf(endpoints);
+    }
+
+    /**
+     * Creates a session on the least loaded endpoint available.
+     * When the creation fails, the next least loaded endpoint is tried.
+     *
+     * @param capabilities The capabilities of the session to create
+     * @return The session created, to close when not used anymore
+     * @throws BrowserException If no endpoint is available or able to create the session
+     */
+    public RemoteSession createSession(Capabilities capabilities) {
+        Set<RemoteEndpoint> tried = new HashSet<>();
+        Exception lastFailure = null;
+        while (tried.size() < endpoints.size()) {
+            Optional<RemoteEndpoint> reserved = reserveEndpoint(tried);
+            if (reserved.isEmpty()) {
+                break;
+            }
+            RemoteEndpoint endpoint = reserved.get();
+            tried.add(endpoint);
+            long start = System.nanoTime();
+            try {
+                WebDriver driver = sessionFactory.apply(endpoint.getUrl(), capabilities);
+                endpoint.recordSuccess(Duration.ofNanos(System.nanoTime() - start));
+                return new RemoteSession(endpoint, driver);
+            } catch (Exception e) {
+                endpoint.release();
+                handleFailure(endpoint, e);
+                lastFailure = e;
+            }
+        }
+        if (lastFailure == null) {
+            throw new BrowserException("No remote endpoint available");
+        }
+        throw new BrowserException("Unable to create a session on any remote endpoint", lastFailure);
+    }
+
+    /**
+     * Checks the health of all the endpoints.
+     * Unhealthy endpoints do not receive new sessions until a health check succeeds.
+     */
+    public void checkHealth() {
+        endpoints.forEach(endpoint -> {
+            long start = System.nanoTime();
+            boolean healthy;
+            try {
+                healthy = healthCheck.test(endpoint.getUrl());
+            } catch (Exception e) {
+                log.debug("Health check failed for {}", endpoint.getUrl(), e);
+                healthy = false;
+            }
+            endpoint.recordHealth(healthy, Duration.ofNanos(System.nanoTime() - start));
+            if (!healthy) {
+                log.warn("Remote endpoint {} is unhealthy", endpoint.getUrl());
+            }
+        });
+    }
+
+    /**
+     * Starts checking the health of all the endpoints periodically in background.
+     *
+     * @param interval The interval between two health checks
+     * @return The current scheduler instance
+     */
+    public synchronized RemoteEndpointScheduler startHealthChecks(Duration interval) {
+        if (healthCheckExecutor == null) {
+            healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "remote-endpoint-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthCheckExecutor.scheduleWithFixedDelay(this::checkHealth, 0, interval.toMillis(), MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a snapshot of the metrics of all the endpoints.
+     *
+     * @return The endpoints metrics in their registration order
+     */
+    public List<EndpointMetrics> getMetrics() {
+        return endpoints.stream()
+                .map(RemoteEndpoint::getMetrics)
+                .toList();
+    }
+
+    /**
+     * Selects the available endpoint with the lowest load (then the fastest to create sessions)
+     * and reserves a slot on it.
+     *
+     * @param excluded The endpoints to ignore
+     * @return The reserved endpoint, {@link Optional#empty()} if all are unavailable
+     */
+    protected synchronized Optional<RemoteEndpoint> reserveEndpoint(Set<RemoteEndpoint> excluded) {
+        Instant now = Instant.now();
+        Optional<RemoteEndpoint> endpoint = endpoints.stream()
+                .filter(candidate -> !excluded.contains(candidate) && candidate.isAvailable(now))
+                .min(comparingDouble(RemoteEndpoint::getLoad)
+                        .thenComparing(RemoteEndpoint::getAverageCreationLatency));
+        endpoint.ifPresent(RemoteEndpoint::reserve);
+        return endpoint;
+    }
+
+    private void handleFailure(RemoteEndpoint endpoint, Exception exception) {
+        int failures = endpoint.recordFailure();
+        log.warn("Unable to create session on {} ({} consecutive failures)", endpoint.getUrl(), failures, exception);
+        if (failures >= maxConsecutiveFailures) {
+            log.warn("Remote endpoint {} ejected for {}", endpoint.getUrl(), ejectionDuration);
+            endpoint.eject(Instant.now().plus(ejectionDuration));
+        }
+    }
+
+    /**
+     * Checks if an endpoint is ready to create sessions using its status endpoint.
+     *
+     * @param url The URL of the endpoint
+     * @return {@code true} if the endpoint reports to be ready, {@code false} otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public boolean isReady(URL url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url.toString().replaceAll("/$", "") + "/status"))
+                    .timeout(Duration.ofSeconds(5))
+                    .GET()
+                    .build();
+            HttpResponse<String> response = statusClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            Map<String, Object> status = new Json().toType(response.body(), Json.MAP_TYPE);
+            Map<String, Object> value = (Map<String, Object>) status.get("value");
+            return value != null && Boolean.TRUE.equals(value.get("ready"));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("Unable to get status of {}", url, e);
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+            healthCheckExecutor = null;
+        }
+    }
+
+}
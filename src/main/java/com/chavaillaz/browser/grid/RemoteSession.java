@@ -0,0 +1,46 @@
+package com.chavaillaz.browser.grid;
+
+import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Session created on a remote endpoint by a {@link RemoteEndpointScheduler}.
+ * Closing it quits the driver and releases its slot on the endpoint.
+ */
+@Slf4j
+@Getter
+public class RemoteSession implements Closeable {
+
+    private final AtomicBoolean released = new AtomicBoolean();
+    private final RemoteEndpoint endpoint;
+    private final WebDriver driver;
+
+    /**
+     * Creates a new remote session.
+     *
+     * @param endpoint The endpoint on which the session is running
+     * @param driver   The driver of the session
+     */
+    public RemoteSession(RemoteEndpoint endpoint, WebDriver driver) {
+        this.endpoint = endpoint;
+        this.driver = driver;
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                log.warn("Unable to quit session on {}", endpoint.getUrl(), e);
+            } finally {
+                endpoint.release();
+            }
+        }
+    }
+
+}
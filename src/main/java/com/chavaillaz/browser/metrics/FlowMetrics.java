@@ -0,0 +1,66 @@
+package com.chavaillaz.browser.metrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Metrics of the steps executed in a flow.
+ */
+public class FlowMetrics {
+
+    private final List<StepMetrics> steps = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Adds the metrics of a step executed.
+     *
+     * @param step The step metrics to add
+     */
+    public void addStep(StepMetrics step) {
+        steps.add(step);
+    }
+
+    /**
+     * Gets the metrics of the steps executed, in their execution order.
+     *
+     * @return The steps metrics
+     */
+    public List<StepMetrics> getSteps() {
+        return List.copyOf(steps);
+    }
+
+    /**
+     * Gets the total time spent executing the steps.
+     *
+     * @return The cumulated duration of the steps
+     */
+    public Duration getDuration() {
+        return getSteps().stream()
+                .map(StepMetrics::duration)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * Gets the total time spent by the browser loading pages.
+     *
+     * @return The cumulated load time of the pages of all steps
+     */
+    public Duration getPageLoadTime() {
+        return getSteps().stream()
+                .map(StepMetrics::pageLoadTime)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
+    /**
+     * Gets the total time spent outside the loading of pages.
+     *
+     * @return The cumulated automation time of all steps
+     */
+    public Duration getAutomationTime() {
+        return getSteps().stream()
+                .map(StepMetrics::automationTime)
+                .reduce(Duration.ZERO, Duration::plus);
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.chavaillaz.browser.metrics;
+
+import static com.chavaillaz.browser.metrics.MetricValues.getLong;
+
+import java.util.Map;
+
+/**
+ * Javascript heap usage of the document, in bytes.
+ * Only available with Chromium based browsers, whose values are rounded and rarely updated
+ * unless they are started with the {@code --enable-precise-memory-info} argument.
+ *
+ * @param used  The memory currently used
+ * @param total The memory currently allocated
+ * @param limit The maximum memory that can be allocated
+ */
+public record HeapUsage(
+        long used,
+        long total,
+        long limit) {
+
+    static HeapUsage of(Map<String, Object> values) {
+        return new HeapUsage(
+                getLong(values, "used"),
+                getLong(values, "total"),
+                getLong(values, "limit"));
+    }
+
+}
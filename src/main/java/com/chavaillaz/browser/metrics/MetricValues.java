@@ -0,0 +1,36 @@
+package com.chavaillaz.browser.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Conversions of the values returned by scripts executed in the browser.
+ */
+@UtilityClass
+class MetricValues {
+
+    static double getDouble(Map<String, Object> values, String key) {
+        return values.get(key) instanceof Number number ? number.doubleValue() : 0;
+    }
+
+    static long getLong(Map<String, Object> values, String key) {
+        return values.get(key) instanceof Number number ? number.longValue() : 0;
+    }
+
+    static String getString(Map<String, Object> values, String key) {
+        return values.get(key) instanceof String text ? text : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> getMap(Map<String, Object> values, String key) {
+        return values.get(key) instanceof Map<?, ?> map ? (Map<String, Object>) map : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> getList(Map<String, Object> values, String key) {
+        return values.get(key) instanceof List<?> list ? (List<Map<String, Object>>) list : List.of();
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.chavaillaz.browser.metrics;
+
+import static com.chavaillaz.browser.metrics.MetricValues.getDouble;
+import static com.chavaillaz.browser.metrics.MetricValues.getLong;
+import static com.chavaillaz.browser.metrics.MetricValues.getString;
+
+import java.util.Map;
+
+/**
+ * Timings of the navigation to the document, in milliseconds.
+ *
+ * @param type             The navigation type (navigate, reload, back_forward or prerender)
+ * @param redirect         The time spent following redirections
+ * @param dns              The time spent resolving the domain name
+ * @param connect          The time spent establishing the connection (including TLS)
+ * @param tls              The time spent in the TLS handshake
+ * @param timeToFirstByte  The time between the request and the first byte of the response
+ * @param download         The time spent receiving the response
+ * @param domInteractive   The time from the navigation start until the document was parsed
+ * @param domContentLoaded The time from the navigation start until the DOMContentLoaded event was handled
+ * @param load             The time from the navigation start until the load event was handled
+ * @param transferSize     The size of the response including headers, in bytes
+ */
+public record NavigationTiming(
+        String type,
+        double redirect,
+        double dns,
+        double connect,
+        double tls,
+        double timeToFirstByte,
+        double download,
+        double domInteractive,
+        double domContentLoaded,
+        double load,
+        long transferSize) {
+
+    static NavigationTiming of(Map<String, Object> values) {
+        return new NavigationTiming(
+                getString(values, "type"),
+                getDouble(values, "redirect"),
+                getDouble(values, "dns"),
+                getDouble(values, "connect"),
+                getDouble(values, "tls"),
+                getDouble(values, "timeToFirstByte"),
+                getDouble(values, "download"),
+                getDouble(values, "domInteractive"),
+                getDouble(values, "domContentLoaded"),
+                getDouble(values, "load"),
+                getLong(values, "transferSize"));
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.chavaillaz.browser.metrics;
+
+import static com.chavaillaz.browser.metrics.MetricValues.getDouble;
+import static com.chavaillaz.browser.metrics.MetricValues.getList;
+import static com.chavaillaz.browser.metrics.MetricValues.getMap;
+import static com.chavaillaz.browser.metrics.MetricValues.getString;
+import static java.util.Optional.ofNullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Performance metrics of a page loaded in the browser.
+ *
+ * @param url        The URL of the page
+ * @param timeOrigin The time origin of the document, identifying it among the documents loaded in the browser
+ * @param navigation The navigation timings, {@code null} if not available
+ * @param resources  The timings of the resources loaded by the page
+ * @param paints     The timings of the paints of the page
+ * @param heap       The Javascript heap usage, {@code null} if not available
+ */
+public record PageMetrics(
+        String url,
+        double timeOrigin,
+        NavigationTiming navigation,
+        List<ResourceTiming> resources,
+        List<PaintTiming> paints,
+        HeapUsage heap) {
+
+    /**
+     * Script getting the time origin of the current document, changing each time a new document is loaded.
+     */
+    public static final String TIME_ORIGIN_SCRIPT = "return performance.timeOrigin;";
+
+    /**
+     * Script collecting all the metrics of the current page in a single call.
+     */
+    public static final String SCRIPT = """
+            var navigation = performance.getEntriesByType('navigation')[0],
+                paints = performance.getEntriesByType('paint'),
+                memory = performance.memory,
+                result = {url: location.href, timeOrigin: performance.timeOrigin, resources: [], paints: []};
+            if (navigation) {
+                result.navigation = {
+                    type: navigation.type,
+                    redirect: navigation.redirectEnd - navigation.redirectStart,
+                    dns: navigation.domainLookupEnd - navigation.domainLookupStart,
+                    connect: navigation.connectEnd - navigation.connectStart,
+                    tls: navigation.secureConnectionStart > 0 ? navigation.connectEnd - navigation.secureConnectionStart : 0,
+                    timeToFirstByte: navigation.responseStart - navigation.requestStart,
+                    download: navigation.responseEnd - navigation.responseStart,
+                    domInteractive: navigation.domInteractive,
+                    domContentLoaded: navigation.domContentLoadedEventEnd,
+                    load: navigation.loadEventEnd,
+                    transferSize: navigation.transferSize
+                };
+            }
+            performance.getEntriesByType('resource').forEach(function (resource) {
+                result.resources.push({
+                    name: resource.name,
+                    initiatorType: resource.initiatorType,
+                    startTime: resource.startTime,
+                    duration: resource.duration,
+                    transferSize: resource.transferSize
+                });
+            });
+            paints.forEach(function (paint) {
+                result.paints.push({name: paint.name, startTime: paint.startTime, size: 0});
+            });
+            try {
+                var observer = new PerformanceObserver(function () {});
+                observer.observe({type: 'largest-contentful-paint', buffered: true});
+                var largest = observer.takeRecords().pop();
+                observer.disconnect();
+                if (largest) {
+                    result.paints.push({name: largest.entryType, startTime: largest.startTime, size: largest.size});
+                }
+            } catch (e) {
+                // Largest contentful paint not supported by the browser
+            }
+            if (memory) {
+                result.heap = {used: memory.usedJSHeapSize, total: memory.totalJSHeapSize, limit: memory.jsHeapSizeLimit};
+            }
+            return result;
+            """;
+
+    /**
+     * Creates the page metrics from the values returned by the collection script.
+     *
+     * @param values The values returned by {@link #SCRIPT}
+     * @return The corresponding page metrics
+     */
+    public static PageMetrics of(Map<String, Object> values) {
+        return new PageMetrics(
+                getString(values, "url"),
+                getDouble(values, "timeOrigin"),
+                ofNullable(getMap(values, "navigation")).map(NavigationTiming::of).orElse(null),
+                getList(values, "resources").stream().map(ResourceTiming::of).toList(),
+                getList(values, "paints").stream().map(PaintTiming::of).toList(),
+                ofNullable(getMap(values, "heap")).map(HeapUsage::of).orElse(null));
+    }
+
+    /**
+     * Gets the time spent by the browser to load the page, until the load event was handled.
+     *
+     * @return The load time in milliseconds, {@code 0} if not available
+     */
+    public double loadTime() {
+        return ofNullable(navigation)
+                .map(NavigationTiming::load)
+                .orElse(0d);
+    }
+
+    /**
+     * Gets the timing of a paint of the page.
+     *
+     * @param name The paint name (first-paint, first-contentful-paint or largest-contentful-paint)
+     * @return The paint timing, {@link Optional#empty()} if not available
+     */
+    public Optional<PaintTiming> paint(String name) {
+        return paints.stream()
+                .filter(paint -> name.equals(paint.name()))
+                .findFirst();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.chavaillaz.browser.metrics;
+
+import static com.chavaillaz.browser.metrics.MetricValues.getDouble;
+import static com.chavaillaz.browser.metrics.MetricValues.getLong;
+import static com.chavaillaz.browser.metrics.MetricValues.getString;
+
+import java.util.Map;
+
+/**
+ * Timing of a paint of the document, in milliseconds.
+ *
+ * @param name      The paint name (first-paint, first-contentful-paint or largest-contentful-paint)
+ * @param startTime The time from the navigation start until the paint
+ * @param size      The area of the painted element in pixels (only for the largest contentful paint)
+ */
+public record PaintTiming(
+        String name,
+        double startTime,
+        long size) {
+
+    static PaintTiming of(Map<String, Object> values) {
+        return new PaintTiming(
+                getString(values, "name"),
+                getDouble(values, "startTime"),
+                getLong(values, "size"));
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.chavaillaz.browser.metrics;
+
+import static com.chavaillaz.browser.metrics.MetricValues.getDouble;
+import static com.chavaillaz.browser.metrics.MetricValues.getLong;
+import static com.chavaillaz.browser.metrics.MetricValues.getString;
+
+import java.util.Map;
+
+/**
+ * Timing of a resource loaded by the document, in milliseconds.
+ *
+ * @param name          The URL of the resource
+ * @param initiatorType The type of element or call having requested the resource (script, img, fetch, ...)
+ * @param startTime     The time from the navigation start until the resource was requested
+ * @param duration      The time spent fetching the resource
+ * @param transferSize  The size of the response including headers, in bytes ({@code 0} when cached)
+ */
+public record ResourceTiming(
+        String name,
+        String initiatorType,
+        double startTime,
+        double duration,
+        long transferSize) {
+
+    static ResourceTiming of(Map<String, Object> values) {
+        return new ResourceTiming(
+                getString(values, "name"),
+                getString(values, "initiatorType"),
+                getDouble(values, "startTime"),
+                getDouble(values, "duration"),
+                getLong(values, "transferSize"));
+    }
+
+}
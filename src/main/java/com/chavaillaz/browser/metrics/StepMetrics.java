@@ -0,0 +1,42 @@
+package com.chavaillaz.browser.metrics;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Metrics of a step executed in a flow.
+ *
+ * @param index    The index of the step in the flow, starting at 1
+ * @param duration The time spent executing the step
+ * @param failed   Indicates whether the step ended with an exception
+ * @param pages    The metrics of the pages loaded during the step
+ */
+public record StepMetrics(
+        int index,
+        Duration duration,
+        boolean failed,
+        List<PageMetrics> pages) {
+
+    /**
+     * Gets the time spent by the browser loading the pages of the step.
+     *
+     * @return The cumulated load time of the pages
+     */
+    public Duration pageLoadTime() {
+        double milliseconds = pages.stream()
+                .mapToDouble(PageMetrics::loadTime)
+                .sum();
+        return Duration.ofNanos((long) (milliseconds * 1_000_000));
+    }
+
+    /**
+     * Gets the time spent in the step outside the loading of pages (interactions, waits, automation overhead).
+     *
+     * @return The duration of the step minus the time spent loading pages
+     */
+    public Duration automationTime() {
+        Duration automation = duration.minus(pageLoadTime());
+        return automation.isNegative() ? Duration.ZERO : automation;
+    }
+
+}
@@ -0,0 +1,318 @@
+package com.chavaillaz.browser.network;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Monitor of the network and lifecycle events of a browser, sent by the Chrome DevTools Protocol.
+ * Waits based on these events complete as soon as the events are received, without polling the browser.
+ * Note that only the requests sent after starting the monitor are tracked.
+ */
+@Slf4j
+public class NetworkMonitor implements Closeable {
+
+    private static final Event<Map<String, Object>> REQUEST_SENT =
+            new Event<>("Network.requestWillBeSent", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> RESPONSE_RECEIVED =
+            new Event<>("Network.responseReceived", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> LOADING_FINISHED =
+            new Event<>("Network.loadingFinished", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> LOADING_FAILED =
+            new Event<>("Network.loadingFailed", input -> input.read(Json.MAP_TYPE));
+    private static final Event<Map<String, Object>> DOM_CONTENT_LOADED =
+            new Event<>("Page.domContentEventFired", input -> input.read(Json.MAP_TYPE));
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<IdleWaiter> idleWaiters = new ArrayList<>();
+    private final List<ResponseExpectation> responseExpectations = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<Void>> domContentExpectations = new CopyOnWriteArrayList<>();
+    private final DevTools devTools;
+    private boolean listening;
+    private volatile boolean started;
+
+    /**
+     * Creates a new monitor for the given browser.
+     *
+     * @param devTools The DevTools connection of the browser to monitor
+     */
+    public NetworkMonitor(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * Starts receiving the network and lifecycle events of the browser.
+     *
+     * @return The current instance
+     * @throws BrowserException If the events cannot be enabled in the browser
+     */
+    public synchronized NetworkMonitor start() {
+        if (started) {
+            return this;
+        }
+
+        started = true;
+        try {
+            if (!listening) {
+                // Listeners cannot be removed individually, so they are kept and ignore the events once closed
+                devTools.addListener(REQUEST_SENT, whenStarted(this::onRequestSent));
+                devTools.addListener(RESPONSE_RECEIVED, whenStarted(this::onResponseReceived));
+                devTools.addListener(LOADING_FINISHED, whenStarted(this::onLoadingDone));
+                devTools.addListener(LOADING_FAILED, whenStarted(this::onLoadingDone));
+                devTools.addListener(DOM_CONTENT_LOADED, whenStarted(event -> onDomContentLoaded()));
+                listening = true;
+            }
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            devTools.send(new Command<>("Page.enable", Map.of()));
+        } catch (Exception e) {
+            started = false;
+            throw new BrowserException("Unable to start network monitoring", e);
+        }
+        log.debug("Network monitoring started");
+        return this;
+    }
+
+    /**
+     * Gets the number of requests sent by the browser and not completed yet.
+     *
+     * @return The number of requests in flight
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the browser has no more than the given number of requests in flight during the given time.
+     *
+     * @param maxInFlight The maximum number of requests in flight considered as idle
+     * @param idleTime    The time during which the network must stay idle
+     * @param timeout     The maximum time to wait
+     * @throws TimeoutException If the network is not idle before the timeout expires
+     * @throws BrowserException If the monitor is closed while waiting
+     */
+    public void awaitNetworkIdle(int maxInFlight, Duration idleTime, Duration timeout) {
+        long idle = idleTime.toNanos();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        lock.lock();
+        IdleWaiter waiter = new IdleWaiter(maxInFlight, inFlight.size() <= maxInFlight ? System.nanoTime() : -1);
+        idleWaiters.add(waiter);
+        try {
+            while (true) {
+                if (waiter.stopped) {
+                    throw new BrowserException("Network monitoring stopped");
+                }
+                long now = System.nanoTime();
+                if (waiter.quietSince >= 0 && now - waiter.quietSince >= idle) {
+                    return;
+                }
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    throw new TimeoutException("Network not idle after " + timeout
+                            + " with " + inFlight.size() + " requests in flight");
+                }
+                if (waiter.quietSince >= 0) {
+                    remaining = Math.min(remaining, waiter.quietSince + idle - now);
+                }
+                changed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BrowserException("Interrupted while waiting for network idle", e);
+        } finally {
+            idleWaiters.remove(waiter);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Expects a response whose URL matches the given predicate.
+     * Call it before triggering the request, as responses received before are not considered.
+     *
+     * @param urlMatcher The predicate the URL of the response must match
+     * @return The future completed with the first matching response
+     */
+    public CompletableFuture<NetworkResponse> expectResponse(Predicate<String> urlMatcher) {
+        ResponseExpectation expectation = new ResponseExpectation(urlMatcher, new CompletableFuture<>());
+        responseExpectations.add(expectation);
+        expectation.future().whenComplete((response, error) -> responseExpectations.remove(expectation));
+        return expectation.future();
+    }
+
+    /**
+     * Expects the DOMContentLoaded event of the next document loaded in the browser.
+     * Call it before triggering the navigation, as events received before are not considered.
+     *
+     * @return The future completed when the event is received
+     */
+    public CompletableFuture<Void> expectDomContentLoaded() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        domContentExpectations.add(future);
+        future.whenComplete((result, error) -> domContentExpectations.remove(future));
+        return future;
+    }
+
+    /**
+     * Waits for an expected event.
+     *
+     * @param future      The future of the expected event
+     * @param timeout     The maximum time to wait
+     * @param description The description of the expected event
+     * @param <T>         The type of the result of the event
+     * @return The result of the event
+     * @throws TimeoutException If the event is not received before the timeout expires
+     */
+    public static <T> T await(CompletableFuture<T> future, Duration timeout, String description) {
+        try {
+            return future.get(timeout.toNanos(), NANOSECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            future.cancel(false);
+            throw new TimeoutException("No " + description + " received after " + timeout);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new BrowserException("Interrupted while waiting for " + description, e);
+        } catch (ExecutionException e) {
+            throw new BrowserException("Unable to wait for " + description, e.getCause());
+        }
+    }
+
+    int getExpectations() {
+        return responseExpectations.size() + domContentExpectations.size();
+    }
+
+    private Consumer<Map<String, Object>> whenStarted(Consumer<Map<String, Object>> handler) {
+        return event -> {
+            if (started) {
+                handler.accept(event);
+            }
+        };
+    }
+
+    void onRequestSent(Map<String, Object> event) {
+        updateInFlight(String.valueOf(event.get("requestId")), true);
+    }
+
+    void onLoadingDone(Map<String, Object> event) {
+        updateInFlight(String.valueOf(event.get("requestId")), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    void onResponseReceived(Map<String, Object> event) {
+        Map<String, Object> response = (Map<String, Object>) event.get("response");
+        NetworkResponse received = new NetworkResponse(
+                String.valueOf(event.get("requestId")),
+                String.valueOf(response.get("url")),
+                response.get("status") instanceof Number status ? status.intValue() : 0,
+                (String) response.get("mimeType"),
+                (String) event.get("type"));
+        for (ResponseExpectation expectation : responseExpectations) {
+            if (expectation.urlMatcher().test(received.url())) {
+                expectation.future().complete(received);
+            }
+        }
+    }
+
+    void onDomContentLoaded() {
+        for (CompletableFuture<Void> future : domContentExpectations) {
+            future.complete(null);
+        }
+    }
+
+    private void updateInFlight(String requestId, boolean sent) {
+        lock.lock();
+        try {
+            boolean updated = sent ? inFlight.add(requestId) : inFlight.remove(requestId);
+            if (updated) {
+                long now = System.nanoTime();
+                for (IdleWaiter waiter : idleWaiters) {
+                    if (inFlight.size() > waiter.maxInFlight) {
+                        waiter.quietSince = -1;
+                    } else if (waiter.quietSince < 0) {
+                        waiter.quietSince = now;
+                    }
+                }
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops tracking the network, disables its events in the browser and fails the pending waits and expectations.
+     */
+    @Override
+    public synchronized void close() {
+        if (!started) {
+            return;
+        }
+
+        started = false;
+        try {
+            devTools.send(new Command<>("Network.disable", Map.of()));
+            devTools.send(new Command<>("Page.disable", Map.of()));
+        } catch (Exception e) {
+            log.warn("Unable to disable network events in the browser", e);
+        }
+        BrowserException closed = new BrowserException("Network monitoring stopped");
+        responseExpectations.forEach(expectation -> expectation.future().completeExceptionally(closed));
+        domContentExpectations.forEach(future -> future.completeExceptionally(closed));
+        lock.lock();
+        try {
+            inFlight.clear();
+            idleWaiters.forEach(waiter -> waiter.stopped = true);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record ResponseExpectation(Predicate<String> urlMatcher, CompletableFuture<NetworkResponse> future) {
+
+    }
+
+    /**
+     * Wait for the network idle, with the time since which the requests in flight are below its threshold.
+     */
+    private static class IdleWaiter {
+
+        private final int maxInFlight;
+        private long quietSince;
+        private boolean stopped;
+
+        IdleWaiter(int maxInFlight, long quietSince) {
+            this.maxInFlight = maxInFlight;
+            this.quietSince = quietSince;
+        }
+
+    }
+
+}
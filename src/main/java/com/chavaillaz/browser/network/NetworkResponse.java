@@ -0,0 +1,19 @@
+package com.chavaillaz.browser.network;
+
+/**
+ * Response received by the browser.
+ *
+ * @param requestId    The identifier of the request in the browser
+ * @param url          The URL of the response
+ * @param status       The HTTP status of the response
+ * @param mimeType     The MIME type of the response
+ * @param resourceType The type of resource requested (e.g. {@code Document}, {@code XHR} or {@code Fetch})
+ */
+public record NetworkResponse(
+        String requestId,
+        String url,
+        int status,
+        String mimeType,
+        String resourceType) {
+
+}
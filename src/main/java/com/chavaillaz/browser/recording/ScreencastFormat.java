@@ -0,0 +1,15 @@
+package com.chavaillaz.browser.recording;
+
+public enum ScreencastFormat {
+
+    /**
+     * One JPEG file per frame written in the target directory.
+     */
+    IMAGE_SEQUENCE,
+
+    /**
+     * All JPEG frames concatenated in the target file (Motion JPEG stream).
+     */
+    MJPEG
+
+}
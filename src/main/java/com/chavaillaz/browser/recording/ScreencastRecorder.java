@@ -0,0 +1,311 @@
+package com.chavaillaz.browser.recording;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Records the content of a Chromium based browser using the screencast frames of the Chrome DevTools Protocol.
+ * Frames are stored in a bounded queue and written by a background thread, dropping frames when the queue is full
+ * in order to never slow down the browser or the flow being recorded.
+ */
+@Slf4j
+public class ScreencastRecorder implements Closeable {
+
+    private static final Event<Map<String, Object>> SCREENCAST_FRAME =
+            new Event<>("Page.screencastFrame", input -> input.read(Json.MAP_TYPE));
+
+    /**
+     * Recorder receiving the frames of each DevTools connection. Listeners cannot be removed individually,
+     * so a single listener is registered per connection and forwards the frames to its current recorder.
+     */
+    private static final Map<DevTools, AtomicReference<ScreencastRecorder>> CURRENT_RECORDERS = new WeakHashMap<>();
+
+    private final AtomicLong receivedFrames = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong writtenFrames = new AtomicLong();
+    private final DevTools devTools;
+    private final Path target;
+    private final ScreencastFormat format;
+    private int quality = 50;
+    private int everyNthFrame = 1;
+    private int maxWidth;
+    private int maxHeight;
+    private int queueCapacity = 64;
+    private BlockingQueue<String> frames;
+    private Thread writer;
+    private volatile boolean recording;
+
+    /**
+     * Creates a new screencast recorder.
+     *
+     * @param devTools The DevTools connection of the browser to record
+     * @param target   The file (for {@link ScreencastFormat#MJPEG}) or directory where to write the frames
+     * @param format   The format in which to write the frames
+     */
+    public ScreencastRecorder(DevTools devTools, Path target, ScreencastFormat format) {
+        this.devTools = devTools;
+        this.target = target;
+        this.format = format;
+    }
+
+    /**
+     * Sets the JPEG quality of the frames sent by the browser.
+     *
+     * @param quality The quality from 0 to 100
+     * @return The current recorder instance
+     */
+    public ScreencastRecorder withQuality(int quality) {
+        this.quality = quality;
+        return this;
+    }
+
+    /**
+     * Sets the frequency of the frames sent by the browser.
+     *
+     * @param everyNthFrame The number of rendered frames for each frame sent
+     * @return The current recorder instance
+     */
+    public ScreencastRecorder withEveryNthFrame(int everyNthFrame) {
+        this.everyNthFrame = everyNthFrame;
+        return this;
+    }
+
+    /**
+     * Sets the maximum size of the frames sent by the browser (scaled down if necessary).
+     *
+     * @param maxWidth  The maximum width in pixels
+     * @param maxHeight The maximum height in pixels
+     * @return The current recorder instance
+     */
+    public ScreencastRecorder withMaxSize(int maxWidth, int maxHeight) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+        return this;
+    }
+
+    /**
+     * Sets the number of frames waiting to be written before new frames are dropped.
+     *
+     * @param queueCapacity The capacity of the frames queue
+     * @return The current recorder instance
+     */
+    public ScreencastRecorder withQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Starts the recording of the browser content.
+     *
+     * @return The current recorder instance
+     * @throws BrowserException If the recording is already started or cannot be started
+     */
+    public synchronized ScreencastRecorder start() {
+        if (recording) {
+            throw new BrowserException("Screencast recording already started");
+        }
+
+        OutputStream stream;
+        try {
+            stream = openStream();
+        } catch (IOException e) {
+            throw new BrowserException("Unable to open screencast target " + target, e);
+        }
+
+        frames = new ArrayBlockingQueue<>(queueCapacity);
+        recording = true;
+        writer = new Thread(() -> writeFrames(stream), "screencast-writer");
+        writer.setDaemon(true);
+        writer.start();
+
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("format", "jpeg");
+        parameters.put("quality", quality);
+        parameters.put("everyNthFrame", everyNthFrame);
+        if (maxWidth > 0 && maxHeight > 0) {
+            parameters.put("maxWidth", maxWidth);
+            parameters.put("maxHeight", maxHeight);
+        }
+
+        try {
+            currentRecorder(devTools).set(this);
+            devTools.send(new Command<>("Page.startScreencast", parameters));
+        } catch (Exception e) {
+            stop();
+            throw new BrowserException("Unable to start screencast recording", e);
+        }
+        log.debug("Screencast recording started to {}", target);
+        return this;
+    }
+
+    /**
+     * Stops the recording and waits for the remaining queued frames to be written.
+     */
+    public synchronized void stop() {
+        if (!recording) {
+            return;
+        }
+
+        recording = false;
+        currentRecorder(devTools).compareAndSet(this, null);
+        stopScreencast();
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.debug("Screencast recording stopped with {} frames written and {} frames dropped",
+                getWrittenFrames(), getDroppedFrames());
+    }
+
+    private static AtomicReference<ScreencastRecorder> currentRecorder(DevTools devTools) {
+        synchronized (CURRENT_RECORDERS) {
+            return CURRENT_RECORDERS.computeIfAbsent(devTools, connection -> {
+                AtomicReference<ScreencastRecorder> current = new AtomicReference<>();
+                connection.addListener(SCREENCAST_FRAME, frame -> {
+                    ScreencastRecorder recorder = current.get();
+                    if (recorder != null) {
+                        recorder.onFrame(frame);
+                    }
+                });
+                return current;
+            });
+        }
+    }
+
+    private void stopScreencast() {
+        try {
+            devTools.send(new Command<>("Page.stopScreencast", Map.of()));
+        } catch (Exception e) {
+            log.warn("Unable to stop screencast in the browser", e);
+        }
+    }
+
+    /**
+     * Indicates whether the recording is running.
+     *
+     * @return {@code true} if the recording is started, {@code false} otherwise
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Gets the number of frames sent by the browser since the recorder creation.
+     *
+     * @return The number of received frames
+     */
+    public long getReceivedFrames() {
+        return receivedFrames.get();
+    }
+
+    /**
+     * Gets the number of frames dropped because the writer was not able to keep up.
+     *
+     * @return The number of dropped frames
+     */
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    /**
+     * Gets the number of frames written to the target.
+     *
+     * @return The number of written frames
+     */
+    public long getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    /**
+     * Handles a frame sent by the browser.
+     * The frame is acknowledged even when dropped, otherwise the browser stops sending new ones.
+     *
+     * @param frame The parameters of the screencast frame event
+     */
+    protected void onFrame(Map<String, Object> frame) {
+        if (!recording) {
+            return;
+        }
+
+        receivedFrames.incrementAndGet();
+        if (!frames.offer((String) frame.get("data"))) {
+            droppedFrames.incrementAndGet();
+        }
+
+        try {
+            devTools.send(new Command<>("Page.screencastFrameAck", Map.of("sessionId", frame.get("sessionId"))));
+        } catch (Exception e) {
+            log.debug("Unable to acknowledge screencast frame", e);
+        }
+    }
+
+    /**
+     * Writes the queued frames until the recording is stopped and the queue is empty.
+     * When the frames cannot be written, the recording is stopped and the remaining frames discarded.
+     */
+    private void writeFrames(OutputStream output) {
+        try (OutputStream stream = output) {
+            while (recording || !frames.isEmpty()) {
+                String data = frames.poll(100, MILLISECONDS);
+                if (data != null) {
+                    writeFrame(stream, Base64.getDecoder().decode(data));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Unable to write screencast to {}", target, e);
+            recording = false;
+            currentRecorder(devTools).compareAndSet(this, null);
+            frames.clear();
+            stopScreencast();
+        }
+    }
+
+    private OutputStream openStream() throws IOException {
+        if (format == ScreencastFormat.MJPEG) {
+            return new BufferedOutputStream(Files.newOutputStream(target));
+        } else {
+            Files.createDirectories(target);
+            return OutputStream.nullOutputStream();
+        }
+    }
+
+    private void writeFrame(OutputStream stream, byte[] image) throws IOException {
+        long index = writtenFrames.incrementAndGet();
+        if (format == ScreencastFormat.MJPEG) {
+            stream.write(image);
+        } else {
+            Files.write(target.resolve(String.format("frame-%06d.jpg", index)), image);
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+}
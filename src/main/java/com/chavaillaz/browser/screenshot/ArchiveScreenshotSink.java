@@ -0,0 +1,140 @@
+package com.chavaillaz.browser.screenshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sink bundling the screenshots in rolling TAR archives instead of writing millions of small files.
+ * A new archive is started when the current one reaches the maximum number of entries.
+ * Unlike ZIP archives, whose index is only written when closing them, each entry of a TAR archive is complete
+ * once written, so that a crash only loses the screenshot being written and not the whole archive.
+ */
+@Slf4j
+public class ArchiveScreenshotSink implements ScreenshotSink {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+
+    private final Path directory;
+    private final String prefix;
+    private final int maxEntries;
+    private OutputStream archive;
+    private int archiveIndex;
+    private int entries;
+
+    /**
+     * Creates a new archive sink.
+     *
+     * @param directory  The directory in which to write the archives
+     * @param prefix     The prefix of the archive file names
+     * @param maxEntries The maximum number of screenshots in each archive
+     */
+    public ArchiveScreenshotSink(Path directory, String prefix, int maxEntries) {
+        this.directory = directory;
+        this.prefix = prefix;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public synchronized void accept(String name, byte[] image) {
+        byte[] header = header(name, image.length);
+        try {
+            if (archive == null || entries >= maxEntries) {
+                roll();
+            }
+            archive.write(header);
+            archive.write(image);
+            archive.write(new byte[padding(image.length)]);
+            archive.flush();
+            entries++;
+        } catch (IOException e) {
+            throw new BrowserException("Unable to archive screenshot " + name, e);
+        }
+    }
+
+    /**
+     * Gets the archive currently written.
+     *
+     * @return The path of the current archive
+     */
+    public Path getCurrentArchive() {
+        return directory.resolve(String.format("%s-%05d.tar", prefix, archiveIndex));
+    }
+
+    private void roll() throws IOException {
+        closeArchive();
+        Files.createDirectories(directory);
+        do {
+            archiveIndex++;
+        } while (Files.exists(getCurrentArchive()));
+        archive = new BufferedOutputStream(Files.newOutputStream(getCurrentArchive()));
+        entries = 0;
+        log.debug("Screenshots archived in {}", getCurrentArchive());
+    }
+
+    private void closeArchive() throws IOException {
+        if (archive != null) {
+            // Two empty blocks mark the end of the archive
+            archive.write(new byte[2 * BLOCK_SIZE]);
+            archive.close();
+            archive = null;
+        }
+    }
+
+    private static byte[] header(String name, long size) {
+        byte[] fileName = name.getBytes(UTF_8);
+        if (fileName.length > NAME_LENGTH) {
+            throw new BrowserException("Screenshot name too long to be archived: " + name);
+        }
+        byte[] header = new byte[BLOCK_SIZE];
+        System.arraycopy(fileName, 0, header, 0, fileName.length);
+        octal(header, 100, 8, 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, System.currentTimeMillis() / 1000);
+        header[156] = '0';
+        System.arraycopy("ustar\0".getBytes(UTF_8), 0, header, 257, 6);
+        header[263] = '0';
+        header[264] = '0';
+
+        // The checksum is computed with its own field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte value : header) {
+            checksum += value & 0xFF;
+        }
+        octal(header, 148, 7, checksum);
+        return header;
+    }
+
+    private static void octal(byte[] header, int offset, int length, long value) {
+        String digits = String.format("%0" + (length - 1) + "o", value);
+        System.arraycopy(digits.getBytes(UTF_8), 0, header, offset, length - 1);
+        header[offset + length - 1] = 0;
+    }
+
+    private static int padding(int size) {
+        return (BLOCK_SIZE - size % BLOCK_SIZE) % BLOCK_SIZE;
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            closeArchive();
+        } catch (IOException e) {
+            log.warn("Unable to close screenshot archive {}", getCurrentArchive(), e);
+        }
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.chavaillaz.browser.screenshot;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sink handing the screenshots to a background thread writing them in the given sink,
+ * so that the threads taking screenshots never wait for disk operations.
+ * When the queue is full, the screenshot is either dropped or the caller waits for space (backpressure).
+ * Screenshots given once the sink is closed are dropped.
+ */
+@Slf4j
+public class AsyncScreenshotSink implements ScreenshotSink {
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final BlockingQueue<Screenshot> queue;
+    private final ScreenshotSink delegate;
+    private final boolean dropWhenFull;
+    private final Object lock = new Object();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new asynchronous sink.
+     *
+     * @param delegate     The sink in which to write the screenshots
+     * @param capacity     The maximum number of screenshots waiting to be written
+     * @param dropWhenFull {@code true} to drop the screenshots when the queue is full,
+     *                     {@code false} to wait for space
+     */
+    public AsyncScreenshotSink(ScreenshotSink delegate, int capacity, boolean dropWhenFull) {
+        this.delegate = delegate;
+        this.dropWhenFull = dropWhenFull;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::write, "screenshot-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void accept(String name, byte[] image) {
+        Screenshot screenshot = new Screenshot(name, image);
+        synchronized (lock) {
+            // Checked under the lock of close, so that no screenshot is queued after the writer stopped
+            while (!closed) {
+                if (queue.offer(screenshot)) {
+                    return;
+                }
+                if (dropWhenFull) {
+                    drop(name, "the queue is full");
+                    return;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    drop(name, "the thread was interrupted");
+                    return;
+                }
+            }
+            drop(name, "the sink is closed");
+        }
+    }
+
+    private void drop(String name, String reason) {
+        dropped.incrementAndGet();
+        log.warn("Screenshot {} dropped because {}", name, reason);
+    }
+
+    /**
+     * Gets the number of screenshots waiting to be written.
+     *
+     * @return The size of the queue
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the number of screenshots written.
+     *
+     * @return The number of written screenshots
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Gets the number of screenshots dropped because the queue was full or the sink closed.
+     *
+     * @return The number of dropped screenshots
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Gets the number of screenshots that could not be written.
+     *
+     * @return The number of failed screenshots
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    private void write() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Screenshot screenshot = queue.poll(100, MILLISECONDS);
+                if (screenshot != null) {
+                    if (!dropWhenFull) {
+                        synchronized (lock) {
+                            // Wakes up the callers waiting for space
+                            lock.notifyAll();
+                        }
+                    }
+                    try {
+                        delegate.accept(screenshot.name(), screenshot.image());
+                        written.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        log.error("Unable to write screenshot {}", screenshot.name(), e);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for the queued screenshots to be written and closes the given sink.
+     * The callers waiting for space are woken up and their screenshots dropped.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        delegate.close();
+    }
+
+    private record Screenshot(String name, byte[] image) {
+
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.chavaillaz.browser.screenshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sink storing each distinct image only once, named by the SHA-256 hash of its content, in the given sink.
+ * The names of the screenshots are associated to the hash of their image in an index file,
+ * with one line by screenshot containing the name and the hash separated by a tab.
+ */
+@Slf4j
+public class ContentAddressedScreenshotSink implements ScreenshotSink {
+
+    private final AtomicLong duplicates = new AtomicLong();
+    private final Set<String> hashes = new HashSet<>();
+    private final ScreenshotSink storage;
+    private final BufferedWriter index;
+
+    /**
+     * Creates a new content addressed sink.
+     * The hashes already present in the index are considered as stored.
+     *
+     * @param storage The sink in which to store the distinct images
+     * @param index   The index file associating names to hashes
+     * @throws BrowserException If the index cannot be read or opened
+     */
+    public ContentAddressedScreenshotSink(ScreenshotSink storage, Path index) {
+        this.storage = storage;
+        try {
+            if (Files.exists(index)) {
+                try (var lines = Files.lines(index, UTF_8)) {
+                    lines.map(line -> line.substring(line.lastIndexOf('\t') + 1))
+                            .forEach(hashes::add);
+                }
+            }
+            this.index = Files.newBufferedWriter(index, UTF_8, CREATE, APPEND);
+        } catch (IOException e) {
+            throw new BrowserException("Unable to open screenshot index " + index, e);
+        }
+    }
+
+    /**
+     * Stores the image if not already stored, then associates its name to its hash in the index.
+     * When the image cannot be stored, neither its hash nor its name are recorded, so that it is stored again later.
+     *
+     * @param name  The name of the screenshot
+     * @param image The content of the screenshot
+     */
+    @Override
+    public void accept(String name, byte[] image) {
+        String hash = hash(image);
+        synchronized (this) {
+            if (hashes.contains(hash)) {
+                duplicates.incrementAndGet();
+            } else {
+                storage.accept(hash + ".png", image);
+                hashes.add(hash);
+            }
+            writeIndex(name, hash);
+        }
+    }
+
+    /**
+     * Gets the number of screenshots whose image was already stored.
+     *
+     * @return The number of duplicates
+     */
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    private void writeIndex(String name, String hash) {
+        try {
+            index.write(name + "\t" + hash);
+            index.newLine();
+            index.flush();
+        } catch (IOException e) {
+            log.warn("Unable to index screenshot {}", name, e);
+        }
+    }
+
+    private static String hash(byte[] image) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image));
+        } catch (NoSuchAlgorithmException e) {
+            throw new BrowserException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            index.close();
+        } catch (IOException e) {
+            log.warn("Unable to close screenshot index", e);
+        }
+        storage.close();
+    }
+
+}
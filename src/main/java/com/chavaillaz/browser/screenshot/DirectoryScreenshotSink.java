@@ -0,0 +1,36 @@
+package com.chavaillaz.browser.screenshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.chavaillaz.browser.exception.BrowserException;
+
+/**
+ * Sink writing each screenshot in a file of a directory, named after the screenshot.
+ */
+public class DirectoryScreenshotSink implements ScreenshotSink {
+
+    private final Path directory;
+
+    /**
+     * Creates a new directory sink.
+     *
+     * @param directory The directory in which to write the screenshots
+     */
+    public DirectoryScreenshotSink(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void accept(String name, byte[] image) {
+        Path file = directory.resolve(name);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.write(file, image);
+        } catch (IOException e) {
+            throw new BrowserException("Unable to write screenshot " + file, e);
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.chavaillaz.browser.screenshot;
+
+import java.io.Closeable;
+
+/**
+ * Destination of the screenshots taken by an automated browser.
+ */
+public interface ScreenshotSink extends Closeable {
+
+    /**
+     * Stores a screenshot.
+     *
+     * @param name  The name of the screenshot (the path given when taking it)
+     * @param image The PNG image of the screenshot
+     */
+    void accept(String name, byte[] image);
+
+    @Override
+    default void close() {
+        // Nothing to release by default
+    }
+
+}
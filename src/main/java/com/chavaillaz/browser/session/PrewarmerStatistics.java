@@ -0,0 +1,31 @@
+package com.chavaillaz.browser.session;
+
+import java.time.Duration;
+
+/**
+ * Statistics of a {@link SessionPrewarmer}.
+ *
+ * @param target         The number of spare sessions to keep ready
+ * @param ready          The number of spare sessions currently ready
+ * @param starting       The number of sessions currently starting
+ * @param started        The number of sessions successfully started
+ * @param failed         The number of sessions that failed to start
+ * @param taken          The number of spare sessions consumed
+ * @param missed         The number of sessions started on demand because no spare session was ready
+ * @param discarded      The number of spare sessions found dead when taken
+ * @param averageStartup The average time spent starting a session
+ * @param maxStartup     The longest time spent starting a session
+ */
+public record PrewarmerStatistics(
+        int target,
+        int ready,
+        int starting,
+        long started,
+        long failed,
+        long taken,
+        long missed,
+        long discarded,
+        Duration averageStartup,
+        Duration maxStartup) {
+
+}
@@ -0,0 +1,23 @@
+package com.chavaillaz.browser.session;
+
+/**
+ * Statistics of a {@link SessionRegistry}.
+ *
+ * @param tracked  The number of sessions currently tracked
+ * @param healthy  The number of tracked sessions whose last probe succeeded
+ * @param probes   The number of probes done
+ * @param dead     The number of probes that detected a dead session
+ * @param replaced The number of dead sessions whose driver was replaced
+ * @param leaked   The number of sessions whose browser was garbage collected without being released
+ * @param released The number of sessions released
+ */
+public record RegistryStatistics(
+        int tracked,
+        int healthy,
+        long probes,
+        long dead,
+        long replaced,
+        long leaked,
+        long released) {
+
+}
@@ -0,0 +1,21 @@
+package com.chavaillaz.browser.session;
+
+import java.time.Instant;
+
+/**
+ * Session tracked by a {@link SessionRegistry}.
+ *
+ * @param id           The identifier of the session in the registry
+ * @param createdAt    The moment the session started being tracked
+ * @param healthy      Whether the last probe of the session succeeded
+ * @param replacements The number of times the driver of the session was replaced
+ * @param origin       The stack trace of the place where the session started being tracked
+ */
+public record SessionInfo(
+        long id,
+        Instant createdAt,
+        boolean healthy,
+        int replacements,
+        Throwable origin) {
+
+}
@@ -0,0 +1,308 @@
+package com.chavaillaz.browser.session;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.chavaillaz.browser.engine.Browser;
+import com.chavaillaz.browser.exception.BrowserException;
+import com.chavaillaz.browser.utils.BrowserUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Service starting browser sessions in advance in background, in order to remove the browser startup time
+ * from the path of the flows. Spare sessions are started in parallel and replaced as soon as they are taken.
+ * Spare sessions are probed when taken, so that the ones that expired or crashed while idle are never handed out.
+ */
+@Slf4j
+public class SessionPrewarmer implements Closeable {
+
+    private final LinkedBlockingQueue<WarmSession> spares = new LinkedBlockingQueue<>();
+    private final AtomicInteger starting = new AtomicInteger();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong missed = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong startupNanos = new AtomicLong();
+    private final AtomicLong maxStartupNanos = new AtomicLong();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Supplier<WebDriver> driverFactory;
+    private final int target;
+    private final ExecutorService executor;
+    private Predicate<WebDriver> probe = SessionRegistry::isAlive;
+    private Duration initialBackoff = Duration.ofMillis(500);
+    private Duration maxBackoff = Duration.ofSeconds(30);
+    private volatile boolean closed;
+
+    /**
+     * Creates a new pre-warmer of sessions for the given browser.
+     *
+     * @param browser The browser for which start sessions
+     * @param target  The number of spare sessions to keep ready
+     */
+    public SessionPrewarmer(Browser browser, int target) {
+        this(() -> BrowserUtils.getDriver(browser), target, target);
+    }
+
+    /**
+     * Creates a new pre-warmer of sessions.
+     *
+     * @param driverFactory The factory starting a new session
+     * @param target        The number of spare sessions to keep ready
+     * @param parallelism   The maximum number of sessions starting at the same time
+     */
+    public SessionPrewarmer(Supplier<WebDriver> driverFactory, int target, int parallelism) {
+        this.driverFactory = driverFactory;
+        this.target = target;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "session-prewarmer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sets the delay before starting a spare session again after a failure.
+     * The delay doubles with each consecutive failure, up to the maximum.
+     *
+     * @param initialBackoff The delay after the first failure (default 500 milliseconds)
+     * @param maxBackoff     The maximum delay (default 30 seconds)
+     * @return The current pre-warmer instance
+     */
+    public SessionPrewarmer withBackoff(Duration initialBackoff, Duration maxBackoff) {
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        return this;
+    }
+
+    /**
+     * Sets the probe checking whether a spare session is still alive when taken.
+     * By default, the handle of the current window is requested.
+     *
+     * @param probe The predicate returning whether the session of the driver is alive
+     * @return The current pre-warmer instance
+     */
+    public SessionPrewarmer withProbe(Predicate<WebDriver> probe) {
+        this.probe = probe;
+        return this;
+    }
+
+    /**
+     * Starts the spare sessions in background.
+     *
+     * @return The current pre-warmer instance
+     */
+    public SessionPrewarmer start() {
+        refill();
+        return this;
+    }
+
+    /**
+     * Takes a spare session if one is ready and alive, or starts a new one on the calling thread otherwise.
+     * A replacement spare session is started in background in both cases.
+     *
+     * @return The session, ready to be used
+     * @throws BrowserException If the pre-warmer is closed
+     */
+    public WarmSession take() {
+        WarmSession session = poll().orElseGet(() -> {
+            missed.incrementAndGet();
+            return startSession();
+        });
+        refill();
+        return session;
+    }
+
+    /**
+     * Takes a spare session, waiting for one to be ready if necessary.
+     *
+     * @param timeout The maximum time to wait for a spare session
+     * @return The session, {@link Optional#empty()} if none was ready before the timeout
+     */
+    public Optional<WarmSession> take(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            WarmSession session;
+            do {
+                session = spares.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } while (session != null && !checkAlive(session));
+            return Optional.ofNullable(session);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } finally {
+            refill();
+        }
+    }
+
+    /**
+     * Indicates whether all the spare sessions are ready.
+     *
+     * @return {@code true} if the target number of spare sessions is ready, {@code false} otherwise
+     */
+    public boolean isReady() {
+        return spares.size() >= target;
+    }
+
+    /**
+     * Gets the statistics of the sessions started.
+     *
+     * @return The pre-warmer statistics
+     */
+    public PrewarmerStatistics getStatistics() {
+        long count = started.get();
+        return new PrewarmerStatistics(
+                target,
+                spares.size(),
+                starting.get(),
+                count,
+                failed.get(),
+                taken.get(),
+                missed.get(),
+                discarded.get(),
+                Duration.ofNanos(count == 0 ? 0 : startupNanos.get() / count),
+                Duration.ofNanos(maxStartupNanos.get()));
+    }
+
+    private Optional<WarmSession> poll() {
+        WarmSession session;
+        do {
+            session = spares.poll();
+        } while (session != null && !checkAlive(session));
+        return Optional.ofNullable(session);
+    }
+
+    /**
+     * Probes a spare session being taken, quitting it when dead.
+     *
+     * @param session The spare session
+     * @return {@code true} if the session is alive and taken, {@code false} if it was discarded
+     */
+    private boolean checkAlive(WarmSession session) {
+        if (probe.test(session.driver())) {
+            taken.incrementAndGet();
+            return true;
+        }
+        discarded.incrementAndGet();
+        log.warn("Spare session ready since {} is dead, discarding it", session.createdAt());
+        quit(session);
+        return false;
+    }
+
+    /**
+     * Starts in background as many sessions as missing to reach the target number of spare sessions.
+     */
+    private synchronized void refill() {
+        while (!closed && spares.size() + starting.get() < target) {
+            starting.incrementAndGet();
+            executor.execute(this::warmUp);
+        }
+    }
+
+    private void warmUp() {
+        boolean failure = false;
+        try {
+            WarmSession session = startSession();
+            consecutiveFailures.set(0);
+            if (!addSpare(session)) {
+                quit(session);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to start spare session", e);
+            failure = true;
+            backOff();
+        } finally {
+            starting.decrementAndGet();
+        }
+
+        if (failure) {
+            refill();
+        }
+    }
+
+    /**
+     * Adds a spare session unless the pre-warmer is closed, under the same lock as {@link #close()}.
+     *
+     * @param session The session started
+     * @return {@code true} if the session was added, {@code false} if it must be quit
+     */
+    private synchronized boolean addSpare(WarmSession session) {
+        if (closed) {
+            return false;
+        }
+        spares.add(session);
+        return true;
+    }
+
+    /**
+     * Waits before starting a session again after a failure, or until the pre-warmer is closed.
+     */
+    private synchronized void backOff() {
+        int failures = consecutiveFailures.incrementAndGet();
+        long delay = Math.min(initialBackoff.toMillis() << Math.min(failures - 1, 16), maxBackoff.toMillis());
+        long deadline = System.currentTimeMillis() + delay;
+        try {
+            long remaining;
+            while (!closed && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                wait(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private WarmSession startSession() {
+        if (closed) {
+            throw new BrowserException("Session pre-warmer is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            WebDriver driver = driverFactory.get();
+            long duration = System.nanoTime() - start;
+            started.incrementAndGet();
+            startupNanos.addAndGet(duration);
+            maxStartupNanos.accumulateAndGet(duration, Math::max);
+            log.debug("Session started in {} ms", TimeUnit.NANOSECONDS.toMillis(duration));
+            return new WarmSession(driver, Instant.now(), Duration.ofNanos(duration));
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            throw e;
+        }
+    }
+
+    private static void quit(WarmSession session) {
+        try {
+            session.driver().quit();
+        } catch (Exception e) {
+            log.debug("Unable to quit spare session", e);
+        }
+    }
+
+    /**
+     * Stops starting new sessions and quits the spare sessions not taken.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+        executor.shutdown();
+        WarmSession session;
+        while ((session = spares.poll()) != null) {
+            quit(session);
+        }
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.chavaillaz.browser.session;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.Closeable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Registry tracking the sessions of automated browsers, to detect the ones that crashed or were never released.
+ * Dead sessions are detected by a cheap probe of their driver, and replaced when a driver factory is given by the
+ * thread using their browser when calling {@link #recover(AutomatedBrowser)}, never while a step may be running.
+ * Browsers garbage collected without being released are reported with the stack trace where they were tracked,
+ * and their driver is quit.
+ */
+@Slf4j
+public class SessionRegistry implements Closeable {
+
+    private final Map<Long, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final ReferenceQueue<AutomatedBrowser> collected = new ReferenceQueue<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong probes = new AtomicLong();
+    private final AtomicLong dead = new AtomicLong();
+    private final AtomicLong replaced = new AtomicLong();
+    private final AtomicLong leaked = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private Predicate<WebDriver> probe = SessionRegistry::isAlive;
+    private Supplier<WebDriver> driverFactory;
+    private ScheduledExecutorService healthCheckExecutor;
+
+    /**
+     * Sets the probe checking whether the session of a driver is still alive.
+     * By default, the handle of the current window is requested.
+     *
+     * @param probe The predicate returning whether the session of the driver is alive
+     * @return The current registry instance
+     */
+    public SessionRegistry withProbe(Predicate<WebDriver> probe) {
+        this.probe = probe;
+        return this;
+    }
+
+    /**
+     * Sets the factory creating the drivers replacing the ones whose session is dead.
+     * Without factory, dead sessions are only reported.
+     *
+     * @param driverFactory The factory creating a new driver
+     * @return The current registry instance
+     * @see #recover(AutomatedBrowser)
+     */
+    public SessionRegistry withReplacement(Supplier<WebDriver> driverFactory) {
+        this.driverFactory = driverFactory;
+        return this;
+    }
+
+    /**
+     * Starts tracking the session of the given browser.
+     *
+     * @param browser The browser to track
+     * @param <B>     The type of browser
+     * @return The browser given
+     */
+    public <B extends AutomatedBrowser> B track(B browser) {
+        long id = ids.incrementAndGet();
+        Throwable origin = new Throwable("Session " + id + " tracked here");
+        sessions.put(id, new TrackedSession(id, browser, collected, origin));
+        return browser;
+    }
+
+    /**
+     * Stops tracking the session of the given browser and quits its driver.
+     *
+     * @param browser The browser to release
+     */
+    public void release(AutomatedBrowser browser) {
+        for (TrackedSession session : sessions.values()) {
+            if (session.get() == browser && sessions.remove(session.id) != null) {
+                session.clear();
+                released.incrementAndGet();
+                quit(session.driver);
+            }
+        }
+    }
+
+    /**
+     * Replaces the driver of the given browser if its session was found dead by the last health check.
+     * As the driver cannot be swapped while a step is using it, this must be called by the thread using the browser,
+     * between two flows for instance.
+     *
+     * @param browser The browser to recover
+     * @return {@code true} if the driver of the browser was replaced, {@code false} otherwise
+     */
+    public boolean recover(AutomatedBrowser browser) {
+        for (TrackedSession session : sessions.values()) {
+            if (session.get() == browser && !session.healthy) {
+                return replace(session, browser);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the sessions currently tracked.
+     *
+     * @return The sessions not released yet
+     */
+    public List<SessionInfo> getSessions() {
+        return sessions.values().stream()
+                .map(TrackedSession::toInfo)
+                .toList();
+    }
+
+    /**
+     * Reports and quits the sessions whose browser was garbage collected without being released,
+     * then probes the other sessions and marks the dead ones to be recovered by the thread using their browser.
+     */
+    public void checkHealth() {
+        Reference<? extends AutomatedBrowser> reference;
+        while ((reference = collected.poll()) != null) {
+            TrackedSession session = (TrackedSession) reference;
+            if (sessions.remove(session.id) != null) {
+                leaked.incrementAndGet();
+                log.warn("Session {} was never released", session.id, session.origin);
+                quit(session.driver);
+            }
+        }
+
+        for (TrackedSession session : sessions.values()) {
+            if (!session.healthy) {
+                // Already waiting to be recovered
+                continue;
+            }
+            probes.incrementAndGet();
+            session.healthy = probe.test(session.driver);
+            if (!session.healthy) {
+                dead.incrementAndGet();
+                log.warn("Session {} is dead", session.id);
+            }
+        }
+    }
+
+    /**
+     * Starts checking the health of the sessions periodically in background.
+     *
+     * @param interval The interval between two health checks
+     * @return The current registry instance
+     */
+    public synchronized SessionRegistry startHealthChecks(Duration interval) {
+        if (healthCheckExecutor == null) {
+            healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-registry-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            healthCheckExecutor.scheduleWithFixedDelay(this::checkHealth, interval.toMillis(), interval.toMillis(), MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a snapshot of the statistics of the registry.
+     *
+     * @return The registry statistics
+     */
+    public RegistryStatistics getStatistics() {
+        return new RegistryStatistics(
+                sessions.size(),
+                (int) sessions.values().stream().filter(session -> session.healthy).count(),
+                probes.get(),
+                dead.get(),
+                replaced.get(),
+                leaked.get(),
+                released.get());
+    }
+
+    private boolean replace(TrackedSession session, AutomatedBrowser browser) {
+        if (driverFactory == null) {
+            return false;
+        }
+
+        try {
+            WebDriver driver = driverFactory.get();
+            WebDriver previous = session.driver;
+            browser.replaceDriver(driver);
+            session.driver = driver;
+            session.healthy = true;
+            session.replacements++;
+            replaced.incrementAndGet();
+            quit(previous);
+            log.info("Session {} replaced", session.id);
+            return true;
+        } catch (Exception e) {
+            log.warn("Unable to replace session {}", session.id, e);
+            return false;
+        }
+    }
+
+    static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (NoSuchWindowException e) {
+            // The session is alive even if its current window was closed
+            return true;
+        } catch (Exception e) {
+            log.debug("Session probe failed", e);
+            return false;
+        }
+    }
+
+    private static void quit(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            log.debug("Unable to quit session", e);
+        }
+    }
+
+    /**
+     * Stops the health checks and reports the sessions never released.
+     */
+    @Override
+    public synchronized void close() {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+            healthCheckExecutor = null;
+        }
+        for (TrackedSession session : sessions.values()) {
+            log.warn("Session {} not released", session.id, session.origin);
+        }
+    }
+
+    /**
+     * Weak reference to a tracked browser, keeping its driver to quit it when the browser is garbage collected.
+     */
+    private static class TrackedSession extends WeakReference<AutomatedBrowser> {
+
+        private final long id;
+        private final Instant createdAt = Instant.now();
+        private final Throwable origin;
+        private volatile WebDriver driver;
+        private volatile boolean healthy = true;
+        private volatile int replacements;
+
+        TrackedSession(long id, AutomatedBrowser browser, ReferenceQueue<AutomatedBrowser> queue, Throwable origin) {
+            super(browser, queue);
+            this.id = id;
+            // Probed in background, so the calls must not be traced as part of the flows of the browser
+            this.driver = browser.getRawDriver();
+            this.origin = origin;
+        }
+
+        SessionInfo toInfo() {
+            return new SessionInfo(id, createdAt, healthy, replacements, origin);
+        }
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.chavaillaz.browser.session;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Browser session created in advance by a {@link SessionPrewarmer}.
+ *
+ * @param driver      The driver of the session, ready to be used
+ * @param createdAt   The moment the session became ready
+ * @param startupTime The time spent starting the session
+ */
+public record WarmSession(
+        WebDriver driver,
+        Instant createdAt,
+        Duration startupTime) {
+
+}
@@ -0,0 +1,225 @@
+package com.chavaillaz.browser.timeout;
+
+import static java.time.Duration.ofSeconds;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timeouts of the waits learned from the durations observed for each selector or condition.
+ * The timeout of a key is the duration at the given percentile of its last waits, multiplied by a margin
+ * and bounded by a floor and a ceiling. Until enough waits have been observed, the ceiling is used.
+ * Waits that timed out are kept as samples at the timeout they were given, so that the timeout of a key whose waits
+ * get slower grows back toward the ceiling by the margin after each timeout, instead of failing forever.
+ * An instance can be shared by the browsers of several workers.
+ */
+public class AdaptiveTimeouts {
+
+    private final Map<String, Samples> samples = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Samples> eldest) {
+            return size() > maxKeys;
+        }
+    };
+    private double percentile = 0.99;
+    private double margin = 1.5;
+    private Duration floor = ofSeconds(2);
+    private Duration ceiling = ofSeconds(30);
+    private int minimumSamples = 10;
+    private int window = 200;
+    private int maxKeys = 1000;
+
+    /**
+     * Sets the percentile of the observed durations on which timeouts are based.
+     *
+     * @param percentile The percentile between 0 and 1 (default 0.99)
+     * @param margin     The factor applied to the duration at the percentile (default 1.5)
+     * @return The current instance
+     */
+    public AdaptiveTimeouts withPercentile(double percentile, double margin) {
+        this.percentile = percentile;
+        this.margin = margin;
+        return this;
+    }
+
+    /**
+     * Sets the bounds of the timeouts.
+     *
+     * @param floor   The minimum timeout (default 2 seconds)
+     * @param ceiling The maximum timeout, also used until enough waits are observed (default 30 seconds)
+     * @return The current instance
+     */
+    public AdaptiveTimeouts withBounds(Duration floor, Duration ceiling) {
+        this.floor = floor;
+        this.ceiling = ceiling;
+        return this;
+    }
+
+    /**
+     * Sets the number of waits kept to compute the timeouts.
+     *
+     * @param minimumSamples The number of waits needed before adapting the timeout (default 10)
+     * @param window         The number of last waits kept for each key (default 200)
+     * @return The current instance
+     */
+    public AdaptiveTimeouts withSamples(int minimumSamples, int window) {
+        this.minimumSamples = minimumSamples;
+        this.window = window;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of keys tracked, the least recently used ones being forgotten first.
+     *
+     * @param maxKeys The maximum number of keys (default 1000)
+     * @return The current instance
+     */
+    public AdaptiveTimeouts withMaxKeys(int maxKeys) {
+        this.maxKeys = maxKeys;
+        return this;
+    }
+
+    /**
+     * Gets the timeout to apply when waiting for the given key.
+     *
+     * @param key The key of the selector or condition
+     * @return The timeout to apply
+     */
+    public Duration getTimeout(String key) {
+        Samples keySamples = find(key);
+        if (keySamples == null) {
+            return ceiling;
+        }
+        synchronized (keySamples) {
+            return timeout(keySamples.sorted());
+        }
+    }
+
+    /**
+     * Records the duration of a successful wait.
+     *
+     * @param key      The key of the selector or condition
+     * @param duration The time the wait took
+     */
+    public void recordSuccess(String key, Duration duration) {
+        Samples keySamples = findOrCreate(key);
+        synchronized (keySamples) {
+            keySamples.add(duration.toNanos());
+        }
+    }
+
+    /**
+     * Records a wait that timed out.
+     * The wait took at least the timeout it was given, which is kept as its duration.
+     *
+     * @param key     The key of the selector or condition
+     * @param timeout The timeout the wait was given
+     */
+    public void recordTimeout(String key, Duration timeout) {
+        Samples keySamples = findOrCreate(key);
+        synchronized (keySamples) {
+            keySamples.add(timeout.toNanos());
+            keySamples.timeouts++;
+        }
+    }
+
+    /**
+     * Gets the statistics of the waits for the given key.
+     *
+     * @param key The key of the selector or condition
+     * @return The statistics of the key
+     */
+    public WaitStatistics getStatistics(String key) {
+        Samples keySamples = find(key);
+        if (keySamples == null) {
+            return new WaitStatistics(key, 0, 0, Duration.ZERO, Duration.ZERO, Duration.ZERO, ceiling);
+        }
+        synchronized (keySamples) {
+            long[] sorted = keySamples.sorted();
+            return new WaitStatistics(key, sorted.length, keySamples.timeouts,
+                    Duration.ofNanos(at(sorted, 0.5)),
+                    Duration.ofNanos(at(sorted, percentile)),
+                    Duration.ofNanos(at(sorted, 1)),
+                    timeout(sorted));
+        }
+    }
+
+    /**
+     * Gets the statistics of the waits for all the keys tracked.
+     *
+     * @return The statistics of each key
+     */
+    public List<WaitStatistics> getStatistics() {
+        List<String> keys;
+        synchronized (samples) {
+            keys = new ArrayList<>(samples.keySet());
+        }
+        return keys.stream()
+                .map(this::getStatistics)
+                .toList();
+    }
+
+    private Duration timeout(long[] sorted) {
+        if (sorted.length < minimumSamples) {
+            return ceiling;
+        }
+        Duration timeout = Duration.ofNanos((long) (at(sorted, percentile) * margin));
+        if (timeout.compareTo(floor) < 0) {
+            return floor;
+        }
+        return timeout.compareTo(ceiling) > 0 ? ceiling : timeout;
+    }
+
+    private Samples find(String key) {
+        synchronized (samples) {
+            return samples.get(key);
+        }
+    }
+
+    private Samples findOrCreate(String key) {
+        synchronized (samples) {
+            return samples.computeIfAbsent(key, k -> new Samples(window));
+        }
+    }
+
+    private static long at(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * Ring buffer of the last durations observed for a key.
+     */
+    private static class Samples {
+
+        private final long[] durations;
+        private int count;
+        private int next;
+        private long timeouts;
+
+        Samples(int window) {
+            this.durations = new long[window];
+        }
+
+        void add(long duration) {
+            durations[next] = duration;
+            next = (next + 1) % durations.length;
+            count = Math.min(count + 1, durations.length);
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.chavaillaz.browser.timeout;
+
+import java.time.Duration;
+
+/**
+ * Statistics of the waits observed for a selector or a condition.
+ *
+ * @param key      The key of the selector or condition
+ * @param samples  The number of waits kept to compute the timeout
+ * @param timeouts The number of waits that timed out
+ * @param median   The median duration of the waits
+ * @param high     The duration at the configured percentile of the waits
+ * @param maximum  The longest wait
+ * @param timeout  The timeout currently applied
+ */
+public record WaitStatistics(
+        String key,
+        int samples,
+        long timeouts,
+        Duration median,
+        Duration high,
+        Duration maximum,
+        Duration timeout) {
+
+}
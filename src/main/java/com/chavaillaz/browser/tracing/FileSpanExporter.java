@@ -0,0 +1,227 @@
+package com.chavaillaz.browser.tracing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.json.Json;
+
+/**
+ * Exporter appending the spans to a file in the OpenTelemetry protocol JSON format, with one line by span,
+ * as written by the file exporter of the OpenTelemetry collector.
+ * Spans are queued and written in batches by a background thread, flushing the file periodically and when closed,
+ * so that the threads ending spans never wait for disk operations. Spans are dropped when the queue is full.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Json JSON = new Json();
+    private static final int MAX_BATCH = 512;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final BlockingQueue<Span> queue;
+    private final BufferedWriter writer;
+    private final String serviceName;
+    private final Duration flushInterval;
+    private final Thread writerThread;
+    private boolean closed;
+
+    /**
+     * Creates a new file exporter, keeping up to 10000 spans waiting to be written and flushing every second.
+     *
+     * @param path        The file in which to append the spans
+     * @param serviceName The name of the service reported in the spans resource
+     * @throws BrowserException If the file cannot be opened
+     */
+    public FileSpanExporter(Path path, String serviceName) {
+        this(path, serviceName, 10_000, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Creates a new file exporter.
+     *
+     * @param path          The file in which to append the spans
+     * @param serviceName   The name of the service reported in the spans resource
+     * @param capacity      The maximum number of spans waiting to be written
+     * @param flushInterval The maximum time spans stay written in the buffer before being flushed to the file
+     * @throws BrowserException If the file cannot be opened
+     */
+    public FileSpanExporter(Path path, String serviceName, int capacity, Duration flushInterval) {
+        this.serviceName = serviceName;
+        this.flushInterval = flushInterval;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        try {
+            this.writer = Files.newBufferedWriter(path, UTF_8, CREATE, APPEND);
+        } catch (IOException e) {
+            throw new BrowserException("Unable to open trace file " + path, e);
+        }
+        this.writerThread = new Thread(this::write, "span-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        boolean queued;
+        synchronized (queue) {
+            queued = !closed && queue.offer(span);
+        }
+        if (!queued) {
+            dropped.incrementAndGet();
+            log.debug("Span {} dropped", span.getName());
+        }
+    }
+
+    /**
+     * Gets the number of spans written to the file.
+     *
+     * @return The number of written spans
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Gets the number of spans dropped because the queue was full or the exporter closed.
+     *
+     * @return The number of dropped spans
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void write() {
+        List<Span> batch = new ArrayList<>(MAX_BATCH);
+        long lastFlush = System.nanoTime();
+        boolean pending = false;
+        try {
+            while (!isClosed() || !queue.isEmpty()) {
+                Span first = queue.poll(100, MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    batch.forEach(this::writeSpan);
+                    batch.clear();
+                    pending = true;
+                }
+                // Flushes when idle or at least once per interval when busy
+                if (pending && (first == null || System.nanoTime() - lastFlush >= flushInterval.toNanos())) {
+                    flush();
+                    pending = false;
+                    lastFlush = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void writeSpan(Span span) {
+        try {
+            writer.write(JSON.toJson(toResourceSpans(span)).replace('\n', ' '));
+            writer.newLine();
+            written.incrementAndGet();
+        } catch (IOException e) {
+            log.warn("Unable to export span {}", span.getName(), e);
+        }
+    }
+
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            log.warn("Unable to flush trace file", e);
+        }
+    }
+
+    private boolean isClosed() {
+        synchronized (queue) {
+            return closed;
+        }
+    }
+
+    private Map<String, Object> toResourceSpans(Span span) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("traceId", span.getTraceId());
+        data.put("spanId", span.getSpanId());
+        if (span.getParentSpanId() != null) {
+            data.put("parentSpanId", span.getParentSpanId());
+        }
+        data.put("name", span.getName());
+        data.put("kind", 1);
+        data.put("startTimeUnixNano", toUnixNano(span.getStart()));
+        data.put("endTimeUnixNano", toUnixNano(span.getEnd()));
+        data.put("attributes", toAttributes(span.getAttributes()));
+        data.put("status", Map.of("code", span.getStatus().ordinal()));
+
+        return Map.of("resourceSpans", List.of(Map.of(
+                "resource", Map.of("attributes", toAttributes(Map.of("service.name", serviceName))),
+                "scopeSpans", List.of(Map.of(
+                        "scope", Map.of("name", "com.chavaillaz.browser"),
+                        "spans", List.of(data))))));
+    }
+
+    private static String toUnixNano(Instant instant) {
+        return String.valueOf(instant.getEpochSecond() * 1_000_000_000L + instant.getNano());
+    }
+
+    private static List<Map<String, Object>> toAttributes(Map<String, Object> attributes) {
+        List<Map<String, Object>> list = new ArrayList<>();
+        attributes.forEach((key, value) -> list.add(Map.of("key", key, "value", toValue(value))));
+        return list;
+    }
+
+    private static Map<String, Object> toValue(Object value) {
+        if (value instanceof Boolean) {
+            return Map.of("boolValue", value);
+        } else if (value instanceof Integer || value instanceof Long) {
+            return Map.of("intValue", String.valueOf(value));
+        } else if (value instanceof Number number) {
+            return Map.of("doubleValue", number.doubleValue());
+        } else {
+            return Map.of("stringValue", String.valueOf(value));
+        }
+    }
+
+    /**
+     * Waits for the queued spans to be written and closes the file.
+     */
+    @Override
+    public void close() {
+        synchronized (queue) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Unable to close trace file", e);
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.chavaillaz.browser.tracing;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Exporter keeping the spans in memory, for example to inspect them in tests.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final List<Span> spans = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void export(Span span) {
+        spans.add(span);
+    }
+
+    /**
+     * Gets the spans exported, in the order they ended.
+     *
+     * @return The exported spans
+     */
+    public List<Span> getSpans() {
+        return List.copyOf(spans);
+    }
+
+    /**
+     * Removes all the spans exported.
+     */
+    public void reset() {
+        spans.clear();
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.chavaillaz.browser.tracing;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * Operation traced, with its timing, attributes and position in the trace.
+ * Ending the span sends it to the exporter of its tracer.
+ */
+@Getter
+public class Span {
+
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final Instant start;
+    private Instant end;
+    private SpanStatus status = SpanStatus.UNSET;
+
+    /**
+     * Creates a new span.
+     *
+     * @param tracer       The tracer having created the span
+     * @param traceId      The identifier of the trace (32 hexadecimal characters)
+     * @param spanId       The identifier of the span (16 hexadecimal characters)
+     * @param parentSpanId The identifier of the parent span, {@code null} for the root span of a trace
+     * @param name         The name of the operation
+     */
+    public Span(Tracer tracer, String traceId, String spanId, String parentSpanId, String name) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.start = Instant.now();
+    }
+
+    /**
+     * Sets an attribute of the span.
+     *
+     * @param key   The key of the attribute
+     * @param value The value of the attribute (string, number or boolean)
+     * @return The current span instance
+     */
+    public synchronized Span setAttribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Gets a copy of the attributes of the span.
+     *
+     * @return The span attributes
+     */
+    public synchronized Map<String, Object> getAttributes() {
+        return new LinkedHashMap<>(attributes);
+    }
+
+    /**
+     * Records an exception as attributes of the span and marks it as failed.
+     *
+     * @param exception The exception to record
+     * @return The current span instance
+     */
+    public Span recordException(Throwable exception) {
+        StringWriter stackTrace = new StringWriter();
+        exception.printStackTrace(new PrintWriter(stackTrace));
+        setAttribute("exception.type", exception.getClass().getName());
+        setAttribute("exception.message", exception.getMessage());
+        setAttribute("exception.stacktrace", stackTrace.toString());
+        return setStatus(SpanStatus.ERROR);
+    }
+
+    /**
+     * Sets the status of the span.
+     *
+     * @param status The status of the operation
+     * @return The current span instance
+     */
+    public synchronized Span setStatus(SpanStatus status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Indicates whether the span is ended.
+     *
+     * @return {@code true} if the span is ended, {@code false} otherwise
+     */
+    public boolean isEnded() {
+        return end != null;
+    }
+
+    /**
+     * Ends the span and exports it. Ending a span already ended has no effect.
+     */
+    public void end() {
+        synchronized (this) {
+            if (end != null) {
+                return;
+            }
+            end = Instant.now();
+            if (status == SpanStatus.UNSET) {
+                status = SpanStatus.OK;
+            }
+        }
+        tracer.onEnd(this);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.chavaillaz.browser.tracing;
+
+import java.io.Closeable;
+
+/**
+ * Destination of the spans ended by a {@link Tracer}.
+ */
+public interface SpanExporter extends Closeable {
+
+    /**
+     * Exports a span ended.
+     * This is called on the thread ending the span and must therefore be fast.
+     *
+     * @param span The span to export
+     */
+    void export(Span span);
+
+    @Override
+    default void close() {
+        // Nothing to release by default
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.chavaillaz.browser.tracing;
+
+public enum SpanStatus {
+
+    UNSET,
+    OK,
+    ERROR
+
+}
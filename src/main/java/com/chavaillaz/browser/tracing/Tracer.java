@@ -0,0 +1,129 @@
+package com.chavaillaz.browser.tracing;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creator of spans, keeping track of the active span of each thread to build the hierarchy of the operations.
+ */
+@Slf4j
+public class Tracer {
+
+    private final ThreadLocal<Deque<Span>> activeSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    @Getter
+    private final SpanExporter exporter;
+
+    /**
+     * Creates a new tracer.
+     *
+     * @param exporter The exporter receiving the spans when they end
+     */
+    public Tracer(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    /**
+     * Gets the active span of the current thread.
+     *
+     * @return The active span, {@link Optional#empty()} if there is none
+     */
+    public Optional<Span> getActiveSpan() {
+        return Optional.ofNullable(activeSpans.get().peek());
+    }
+
+    /**
+     * Creates a span without making it active.
+     *
+     * @param name   The name of the operation
+     * @param parent The parent span, {@code null} to start a new trace
+     * @return The span created
+     */
+    public Span createSpan(String name, Span parent) {
+        HexFormat hex = HexFormat.of();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String spanId = hex.toHexDigits(random.nextLong());
+        if (parent == null) {
+            String traceId = hex.toHexDigits(random.nextLong()) + hex.toHexDigits(random.nextLong());
+            return new Span(this, traceId, spanId, null, name);
+        }
+        return new Span(this, parent.getTraceId(), spanId, parent.getSpanId(), name);
+    }
+
+    /**
+     * Starts a span as child of the given one and makes it the active span of the current thread until it ends.
+     *
+     * @param name   The name of the operation
+     * @param parent The parent span, {@code null} to start a new trace
+     * @return The span started
+     */
+    public Span startSpan(String name, Span parent) {
+        Span span = createSpan(name, parent);
+        activeSpans.get().push(span);
+        return span;
+    }
+
+    /**
+     * Starts a span as child of the active one and makes it the active span of the current thread until it ends.
+     *
+     * @param name The name of the operation
+     * @return The span started
+     */
+    public Span startSpan(String name) {
+        return startSpan(name, getActiveSpan().orElse(null));
+    }
+
+    /**
+     * Traces an operation in a span child of the active one, recording the exception thrown if any.
+     *
+     * @param name   The name of the operation
+     * @param action The operation to execute
+     * @param <T>    The type of the result of the operation
+     * @return The result of the operation
+     */
+    public <T> T trace(String name, Supplier<T> action) {
+        Span span = startSpan(name);
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Traces an operation in a span child of the active one, recording the exception thrown if any.
+     *
+     * @param name   The name of the operation
+     * @param action The operation to execute
+     */
+    public void trace(String name, Runnable action) {
+        trace(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Handles the end of a span, removing it from the active spans and exporting it.
+     *
+     * @param span The span ended
+     */
+    void onEnd(Span span) {
+        activeSpans.get().remove(span);
+        try {
+            exporter.export(span);
+        } catch (Exception e) {
+            log.warn("Unable to export span {}", span.getName(), e);
+        }
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.chavaillaz.browser.tracing;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+/**
+ * Listener of the calls to a driver (and its elements, navigation, options, ...), tracing each one in a span.
+ *
+ * @see org.openqa.selenium.support.events.EventFiringDecorator
+ */
+public class TracingListener implements WebDriverListener {
+
+    private final ThreadLocal<Deque<Span>> calls = ThreadLocal.withInitial(ArrayDeque::new);
+    private final Tracer tracer;
+
+    /**
+     * Creates a new tracing listener.
+     *
+     * @param tracer The tracer to use to create the spans
+     */
+    public TracingListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        String type = method.getDeclaringClass().getSimpleName();
+        calls.get().push(tracer.startSpan(type + "." + method.getName())
+                .setAttribute("webdriver.interface", type)
+                .setAttribute("webdriver.method", method.getName()));
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        endSpan(null);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        endSpan(e.getTargetException());
+    }
+
+    private void endSpan(Throwable exception) {
+        Span span = calls.get().poll();
+        if (span != null) {
+            if (exception != null) {
+                span.recordException(exception);
+            }
+            span.end();
+        }
+    }
+
+}
@@ -6,13 +6,18 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.chavaillaz.browser.engine.Browser;
+import com.chavaillaz.browser.exception.BrowserException;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
 
 @Slf4j
 @UtilityClass
@@ -98,4 +103,26 @@ public class BrowserUtils {
                 .create();
     }
 
+    /**
+     * Gets the Chrome DevTools Protocol connection of the given driver, with an opened session.
+     * Remote drivers are augmented when their capabilities allow it (e.g. Chromium based browsers in a container).
+     *
+     * @param driver The browser driver from which get the connection
+     * @return The DevTools connection of the driver
+     * @throws BrowserException If the driver does not support the Chrome DevTools Protocol
+     */
+    public static DevTools getDevTools(WebDriver driver) {
+        WebDriver devToolsDriver = driver;
+        if (!(devToolsDriver instanceof HasDevTools) && devToolsDriver instanceof RemoteWebDriver) {
+            devToolsDriver = new Augmenter().augment(devToolsDriver);
+        }
+        if (devToolsDriver instanceof HasDevTools hasDevTools) {
+            DevTools devTools = hasDevTools.maybeGetDevTools()
+                    .orElseThrow(() -> new BrowserException("DevTools connection unavailable for the driver"));
+            devTools.createSessionIfThereIsNotOne();
+            return devTools;
+        }
+        throw new BrowserException("Driver " + driver.getClass().getSimpleName() + " does not support DevTools");
+    }
+
 }
@@ -0,0 +1,91 @@
+package com.chavaillaz.browser;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import lombok.Getter;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.Connection;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.WebSocket;
+
+/**
+ * Stand-in DevTools connection recording the commands sent and letting tests fire events.
+ */
+public class StubDevTools extends DevTools {
+
+    @Getter
+    private final List<Command<?>> commands = new CopyOnWriteArrayList<>();
+    private final Map<String, List<Consumer<Object>>> listeners = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a stand-in DevTools connection without any browser behind.
+     */
+    public StubDevTools() {
+        super(devTools -> null, new Connection(createClient(), "ws://localhost/stub"));
+    }
+
+    private static HttpClient createClient() {
+        WebSocket socket = (WebSocket) Proxy.newProxyInstance(StubDevTools.class.getClassLoader(),
+                new Class<?>[]{WebSocket.class}, (proxy, method, arguments) -> null);
+        return (HttpClient) Proxy.newProxyInstance(StubDevTools.class.getClassLoader(),
+                new Class<?>[]{HttpClient.class}, (proxy, method, arguments) ->
+                        method.getName().equals("openSocket") ? socket : null);
+    }
+
+    @Override
+    public <X> X send(Command<X> command) {
+        commands.add(command);
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <X> void addListener(Event<X> event, Consumer<X> handler) {
+        listeners.computeIfAbsent(event.getMethod(), method -> new CopyOnWriteArrayList<>())
+                .add((Consumer<Object>) handler);
+    }
+
+    @Override
+    public void clearListeners() {
+        listeners.clear();
+    }
+
+    /**
+     * Gets the number of listeners registered for an event.
+     *
+     * @param method The method of the event
+     * @return The number of listeners
+     */
+    public int getListenerCount(String method) {
+        return listeners.getOrDefault(method, List.of()).size();
+    }
+
+    /**
+     * Gets the methods of the commands sent, in their order.
+     *
+     * @return The methods of the commands
+     */
+    public List<String> getCommandMethods() {
+        return commands.stream()
+                .map(Command::getMethod)
+                .toList();
+    }
+
+    /**
+     * Fires an event to the listeners registered for it.
+     *
+     * @param method The method of the event
+     * @param data   The data of the event
+     */
+    public void fire(String method, Object data) {
+        listeners.getOrDefault(method, List.of()).forEach(listener -> listener.accept(data));
+    }
+
+}
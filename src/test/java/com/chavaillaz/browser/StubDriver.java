@@ -0,0 +1,111 @@
+package com.chavaillaz.browser;
+
+import java.lang.reflect.Proxy;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiFunction;
+
+import lombok.Getter;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.interactions.Interactive;
+
+/**
+ * Stand-in driver recording the calls made to it, used to test the library without a browser.
+ */
+@Getter
+public class StubDriver {
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final List<String> scripts = new CopyOnWriteArrayList<>();
+    private final List<String> visitedUrls = new CopyOnWriteArrayList<>();
+    private final Set<Cookie> cookies = new HashSet<>();
+    private final WebDriver driver;
+    private volatile boolean alive = true;
+    private volatile String currentUrl = "about:blank";
+
+    /**
+     * Creates a stand-in driver answering scripts with {@code null}.
+     */
+    public StubDriver() {
+        this((script, parameters) -> null);
+    }
+
+    /**
+     * Creates a stand-in driver.
+     *
+     * @param scriptHandler The function computing the result of the scripts executed
+     */
+    public StubDriver(BiFunction<String, Object[], Object> scriptHandler) {
+        driver = (WebDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.class, JavascriptExecutor.class, Interactive.class},
+                (proxy, method, arguments) -> {
+                    calls.add(method.getName());
+                    return switch (method.getName()) {
+                        case "executeScript" -> {
+                            checkAlive();
+                            scripts.add((String) arguments[0]);
+                            yield scriptHandler.apply((String) arguments[0], (Object[]) arguments[1]);
+                        }
+                        case "quit" -> {
+                            alive = false;
+                            yield null;
+                        }
+                        case "get" -> {
+                            checkAlive();
+                            currentUrl = (String) arguments[0];
+                            visitedUrls.add(currentUrl);
+                            yield null;
+                        }
+                        case "getCurrentUrl" -> {
+                            checkAlive();
+                            yield currentUrl;
+                        }
+                        case "getWindowHandle" -> {
+                            checkAlive();
+                            yield "stub";
+                        }
+                        case "manage" -> createOptions();
+                        case "findElements", "getWindowHandles" -> List.of();
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == arguments[0];
+                        case "toString" -> "StubDriver@" + System.identityHashCode(proxy);
+                        default -> null;
+                    };
+                });
+    }
+
+    private WebDriver.Options createOptions() {
+        return (WebDriver.Options) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{WebDriver.Options.class},
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "getCookies" -> new HashSet<>(cookies);
+                    case "addCookie" -> {
+                        cookies.add((Cookie) arguments[0]);
+                        yield null;
+                    }
+                    case "deleteAllCookies" -> {
+                        cookies.clear();
+                        yield null;
+                    }
+                    default -> null;
+                });
+    }
+
+    /**
+     * Simulates a crash of the browser, making all the following calls fail.
+     */
+    public void crash() {
+        alive = false;
+    }
+
+    private void checkAlive() {
+        if (!alive) {
+            throw new IllegalStateException("Session is dead");
+        }
+    }
+
+}
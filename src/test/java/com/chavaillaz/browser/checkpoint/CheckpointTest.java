@@ -0,0 +1,154 @@
+package com.chavaillaz.browser.checkpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.engine.AutomatedBrowserFlow;
+import com.chavaillaz.browser.exception.BrowserException;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.Cookie;
+
+class CheckpointTest {
+
+    public static final String FLOW = "extraction";
+
+    @TempDir
+    Path directory;
+
+    @Data
+    static class Context implements Serializable {
+        private final List<String> results = new ArrayList<>();
+    }
+
+    FileCheckpointStore store() {
+        return new FileCheckpointStore(directory).withAllowedClasses(Context.class.getName());
+    }
+
+    AutomatedBrowserFlow<AutomatedBrowser, Context> run(StubDriver stub, List<String> executed, boolean failing) {
+        return new AutomatedBrowserFlow<AutomatedBrowser, Context>(new AutomatedBrowser(stub.getDriver()))
+                .withContext(new Context())
+                .withCheckpoints(store(), FLOW)
+                .withStep((browser, context) -> {
+                    executed.add("search");
+                    browser.navigate("https://localhost/search?page=2");
+                    browser.getDriver().manage().addCookie(new Cookie("session", "secret"));
+                    context.getResults().add("first");
+                })
+                .withCheckpoint("searched")
+                .withStep((browser, context) -> {
+                    executed.add("extract");
+                    if (failing) {
+                        throw new IllegalStateException("Page changed");
+                    }
+                    context.getResults().add("second");
+                })
+                .withCheckpoint("extracted")
+                .complete();
+    }
+
+    @Test
+    void testResumeFromLastCheckpoint() {
+        List<String> firstRun = new ArrayList<>();
+        run(new StubDriver(), firstRun, true);
+        assertEquals(List.of("search", "extract"), firstRun);
+
+        Checkpoint checkpoint = store().load(FLOW).orElseThrow();
+        assertEquals("searched", checkpoint.name());
+        assertEquals("https://localhost/search?page=2", checkpoint.url());
+
+        List<String> secondRun = new ArrayList<>();
+        StubDriver stub = new StubDriver();
+        run(stub, secondRun, false);
+        assertEquals(List.of("extract"), secondRun);
+        assertEquals("https://localhost/search?page=2", stub.getCurrentUrl());
+        assertTrue(stub.getCookies().contains(new Cookie("session", "secret")));
+
+        assertTrue(store().load(FLOW).isEmpty());
+    }
+
+    @Test
+    void testRestoredContext() {
+        run(new StubDriver(), new ArrayList<>(), true);
+
+        List<String> results = new ArrayList<>();
+        new AutomatedBrowserFlow<AutomatedBrowser, Context>(new AutomatedBrowser(new StubDriver().getDriver()))
+                .withCheckpoints(store(), FLOW)
+                .withStep(() -> results.add("skipped"))
+                .withCheckpoint("searched")
+                .withStep((browser, context) -> results.addAll(context.getResults()));
+
+        assertEquals(List.of("first"), results);
+    }
+
+    @Test
+    void testStaleCheckpointRemoved() {
+        FileCheckpointStore store = store();
+        store.save(FLOW, new Checkpoint("renamed", null, "https://localhost/", Set.of(), Instant.now()));
+
+        List<String> firstRun = new ArrayList<>();
+        run(new StubDriver(), firstRun, false);
+        assertTrue(firstRun.isEmpty());
+        assertTrue(store.load(FLOW).isEmpty());
+
+        List<String> secondRun = new ArrayList<>();
+        run(new StubDriver(), secondRun, false);
+        assertEquals(List.of("search", "extract"), secondRun);
+    }
+
+    @Test
+    void testFlowIdentifierEncoded() throws IOException {
+        FileCheckpointStore store = new FileCheckpointStore(directory.resolve("checkpoints"));
+        store.save("../outside/flow", new Checkpoint("searched", null, "https://localhost/", Set.of(), Instant.now()));
+
+        assertEquals("searched", store.load("../outside/flow").orElseThrow().name());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(directory.resolve("checkpoints")), files.toList());
+        }
+        assertThrows(BrowserException.class, () -> store.load(" "));
+    }
+
+    @Test
+    void testUnexpectedClassesRejected() {
+        run(new StubDriver(), new ArrayList<>(), true);
+
+        assertTrue(new FileCheckpointStore(directory).load(FLOW).isEmpty());
+        assertEquals("searched", store().load(FLOW).orElseThrow().name());
+    }
+
+    @Test
+    void testFailedRestoreHandled() {
+        run(new StubDriver(), new ArrayList<>(), true);
+
+        StubDriver stub = new StubDriver();
+        stub.crash();
+        List<Exception> handled = new ArrayList<>();
+        List<String> executed = new ArrayList<>();
+        new AutomatedBrowserFlow<AutomatedBrowser, Context>(new AutomatedBrowser(stub.getDriver()))
+                .withDefaultExceptionHandler((Exception e) -> handled.add(e))
+                .withCheckpoints(store(), FLOW)
+                .withStep(() -> executed.add("search"))
+                .withCheckpoint("searched")
+                .withStep(() -> executed.add("extract"))
+                .complete();
+
+        assertEquals(1, handled.size());
+        assertEquals(List.of("extract"), executed);
+        assertEquals("searched", store().load(FLOW).orElseThrow().name());
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.chavaillaz.browser.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.exception.BrowserException;
+import org.junit.jupiter.api.Test;
+
+class CrawlerTest {
+
+    @Test
+    void testNormalization() {
+        assertEquals("https://example.com/a/c?x=1&y=2",
+                UrlNormalizer.normalize("HTTPS://Example.COM:443/a/b/../c?y=2&x=1#top").orElseThrow().toString());
+        assertEquals("http://example.com:8080/",
+                UrlNormalizer.normalize("http://example.com:8080").orElseThrow().toString());
+        assertTrue(UrlNormalizer.normalize("mailto:someone@example.com").isEmpty());
+        assertTrue(UrlNormalizer.normalize("not a url").isEmpty());
+    }
+
+    @Test
+    void testFingerprints() {
+        UrlFingerprints fingerprints = new UrlFingerprints(4);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(fingerprints.add("https://example.com/page/" + i));
+        }
+        assertFalse(fingerprints.add("https://example.com/page/42"));
+        assertTrue(fingerprints.contains("https://example.com/page/999"));
+        assertFalse(fingerprints.contains("https://example.com/page/1000"));
+        assertEquals(1000, fingerprints.size());
+    }
+
+    @Test
+    void testPriorityAndDedupe() throws Exception {
+        UrlFrontier frontier = new UrlFrontier(10).withHostRate(1000, 10);
+        assertTrue(frontier.offer("https://example.com/low", 1, 0));
+        assertTrue(frontier.offer("https://example.com/high", 5, 0));
+        assertFalse(frontier.offer("https://EXAMPLE.com/high#section", 5, 0));
+        assertFalse(frontier.offer("ftp://example.com/file", 5, 0));
+
+        assertEquals("/high", frontier.poll(Duration.ofSeconds(1)).orElseThrow().url().getPath());
+        assertEquals("/low", frontier.poll(Duration.ofSeconds(1)).orElseThrow().url().getPath());
+
+        FrontierMetrics metrics = frontier.getMetrics();
+        assertEquals(2, metrics.inFlight());
+        assertEquals(1, metrics.duplicates());
+        assertEquals(1, metrics.rejected());
+    }
+
+    @Test
+    void testHostRateLimit() throws Exception {
+        UrlFrontier frontier = new UrlFrontier(10)
+                .withHostRate(10, 1)
+                .withHostRate("fast.com", 1000);
+        frontier.offer("https://slow.com/1", 0, 0);
+        frontier.offer("https://slow.com/2", 0, 0);
+        frontier.offer("https://fast.com/1", 0, 0);
+        frontier.offer("https://fast.com/2", 0, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            frontier.poll(Duration.ofSeconds(1)).orElseThrow();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(elapsed >= Duration.ofMillis(90).toNanos(), "Second URL of slow host given too early");
+        assertTrue(frontier.poll(Duration.ofMillis(10)).isEmpty());
+    }
+
+    @Test
+    void testBackpressure() {
+        UrlFrontier frontier = new UrlFrontier(1);
+        assertTrue(frontier.offer("https://example.com/1", 0, 0));
+        assertFalse(frontier.offer("https://example.com/2", 0, 0));
+        assertEquals(1, frontier.getMetrics().overflows());
+    }
+
+    @Test
+    void testCrawl() throws Exception {
+        Map<String, List<String>> site = Map.of(
+                "https://site.com/", List.of("https://site.com/a", "https://site.com/b", "https://other.com/"),
+                "https://site.com/a", List.of("https://site.com/", "https://site.com/b"),
+                "https://site.com/b", List.of("https://site.com/c"),
+                "https://other.com/", List.of());
+        Set<String> visited = ConcurrentHashMap.newKeySet();
+
+        UrlFrontier frontier = new UrlFrontier(100).withHostRate(1000, 10);
+        frontier.put("https://site.com/", 0, 0);
+        try (Crawler<AutomatedBrowser> crawler = new Crawler<>(frontier,
+                () -> new AutomatedBrowser(new StubDriver().getDriver()), 3,
+                (browser, request) -> {
+                    visited.add(request.url().toString());
+                    return site.getOrDefault(request.url().toString(), List.of());
+                })) {
+            crawler.withMaxDepth(1).start().start().awaitCompletion();
+
+            assertEquals(Set.of("https://site.com/", "https://site.com/a", "https://site.com/b",
+                    "https://other.com/"), visited);
+            CrawlerMetrics metrics = crawler.getMetrics();
+            assertEquals(4, metrics.visited());
+            assertEquals(0, metrics.frontier().queued());
+            assertTrue(metrics.throughput() > 0);
+        }
+    }
+
+    @Test
+    void testStartWithoutSeeds() {
+        UrlFrontier frontier = new UrlFrontier(100);
+        try (Crawler<AutomatedBrowser> crawler = new Crawler<>(frontier,
+                () -> new AutomatedBrowser(new StubDriver().getDriver()), 1, (browser, request) -> List.of())) {
+            assertThrows(BrowserException.class, crawler::start);
+        }
+    }
+
+}
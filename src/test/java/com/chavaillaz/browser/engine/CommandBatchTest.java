@@ -0,0 +1,75 @@
+package com.chavaillaz.browser.engine;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.chavaillaz.browser.StubDriver;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+
+class CommandBatchTest {
+
+    @Test
+    void testConsecutiveOperationsInSingleScript() {
+        StubDriver stub = new StubDriver((script, parameters) -> {
+            List<String> errors = new ArrayList<>();
+            ((List<?>) parameters[0]).forEach(operation -> errors.add(null));
+            return errors;
+        });
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+
+        BatchResult result = browser.batch()
+                .highlight(By.cssSelector(".item"))
+                .alignCenter(By.id("first"))
+                .scroll(0, 100)
+                .scrollArea(By.xpath("//textarea"))
+                .flush();
+
+        assertTrue(result.isSuccessful());
+        assertEquals(4, result.operations().size());
+        assertEquals(1, stub.getScripts().size());
+        assertFalse(stub.getCalls().contains("findElements"));
+    }
+
+    @Test
+    void testErrorsReportedByOperation() {
+        StubDriver stub = new StubDriver((script, parameters) -> {
+            List<String> errors = new ArrayList<>();
+            errors.add(null);
+            errors.add("Element detached");
+            return errors;
+        });
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+
+        BatchResult result = browser.batch()
+                .highlight(By.cssSelector(".item"))
+                .alignTop(By.cssSelector(".missing"))
+                .flush();
+
+        assertFalse(result.isSuccessful());
+        assertNull(result.operations().get(0).error());
+        assertEquals("alignTop", result.getFailures().get(0).name());
+        assertEquals(1, result.getFailures().get(0).index());
+    }
+
+    @Test
+    void testScriptsInstalledWhenMissing() {
+        StubDriver stub = new StubDriver((script, parameters) -> script.startsWith("var f")
+                ? ScriptRegistry.MISSING
+                : singletonList(null));
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+
+        browser.batch().flush();
+        browser.batch().scroll(0, 10).flush();
+
+        assertEquals(2, stub.getScripts().size());
+        assertTrue(stub.getScripts().get(1).contains(ScriptRegistry.TABLE + " = {}"));
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.chavaillaz.browser.engine;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import org.junit.jupiter.api.Test;
+
+class ScriptRegistryTest {
+
+    @Test
+    void testInvocationDoesNotContainSource() {
+        ScriptRegistry registry = new ScriptRegistry()
+                .register("sum", "return arguments[0] + arguments[1];");
+
+        assertTrue(registry.contains("sum"));
+        assertFalse(registry.getInvocation("sum").contains("arguments[0] + arguments[1]"));
+        assertTrue(registry.getInvocation("sum").contains(ScriptRegistry.MISSING));
+    }
+
+    @Test
+    void testInstallationContainsAllScripts() {
+        ScriptRegistry registry = new ScriptRegistry()
+                .register("sum", "return arguments[0] + arguments[1];")
+                .register("negate", "return -arguments[0];");
+
+        String installation = registry.getInstallation("sum");
+        assertTrue(installation.contains("return arguments[0] + arguments[1];"));
+        assertTrue(installation.contains("return -arguments[0];"));
+        assertTrue(installation.endsWith(registry.getInvocation("sum")));
+    }
+
+    @Test
+    void testUnknownScript() {
+        ScriptRegistry registry = new ScriptRegistry();
+        assertThrows(BrowserException.class, () -> registry.getInvocation("unknown"));
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.chavaillaz.browser.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import com.chavaillaz.browser.StubDriver;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+class ScriptSelectorsTest {
+
+    static Map<String, Object> css(String value) {
+        return Map.of("using", "css selector", "value", value);
+    }
+
+    @Test
+    void testTargetOfEveryBuiltInSelector() {
+        AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver());
+
+        assertEquals(css("[id=\"main \\\"title\\\"\"]"), ScriptSelectors.toTarget(browser, By.id("main \"title\"")));
+        assertEquals(css("[name=\"q\"]"), ScriptSelectors.toTarget(browser, By.name("q")));
+        assertEquals(css("[class~=\"result\"]"), ScriptSelectors.toTarget(browser, By.className("result")));
+        assertEquals(css("div"), ScriptSelectors.toTarget(browser, By.tagName("div")));
+        assertEquals(css(".result > a"), ScriptSelectors.toTarget(browser, By.cssSelector(".result > a")));
+        assertEquals(Map.of("using", "xpath", "value", "//a"), ScriptSelectors.toTarget(browser, By.xpath("//a")));
+        assertEquals(Map.of("using", "link text", "value", "Next"), ScriptSelectors.toTarget(browser, By.linkText("Next")));
+        assertEquals(Map.of("using", "partial link text", "value", "Ne"), ScriptSelectors.toTarget(browser, By.partialLinkText("Ne")));
+    }
+
+    @Test
+    void testTargetOfCustomSelector() {
+        AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver());
+        By custom = new By() {
+            @Override
+            public List<WebElement> findElements(SearchContext context) {
+                return List.of();
+            }
+        };
+
+        assertEquals(Map.of("elements", List.of()), ScriptSelectors.toTarget(browser, custom));
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.chavaillaz.browser.engine;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.chavaillaz.browser.StubDriver;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.By;
+
+class ScrollHarvesterTest {
+
+    /**
+     * Minimal document in which the harvest script is executed by Node.js, with {@code add(count)} appending items,
+     * {@code replace(count)} re-rendering the list and {@code harvest(limit, prune)} executing a round.
+     * Each call of {@code print(value)} writes a line with the value followed by the number of queries done.
+     */
+    static final String DOCUMENT = """
+            var elements = [], observers = [], queries = 0, created = 0;
+            function Element() { this.innerText = 'item-' + created++; this.attributes = {}; }
+            Element.prototype.hasAttribute = function (name) { return name in this.attributes; };
+            Element.prototype.setAttribute = function (name, value) { this.attributes[name] = value; };
+            Element.prototype.remove = function () { elements.splice(elements.indexOf(this), 1); mutate(); };
+            Element.prototype.scrollIntoView = function () {};
+            function MutationObserver(callback) { this.callback = callback; this.records = []; }
+            MutationObserver.prototype.observe = function () { observers.push(this); };
+            MutationObserver.prototype.takeRecords = function () { var records = this.records; this.records = []; return records; };
+            function mutate() { observers.forEach(function (observer) { observer.records.push({}); }); }
+            function deliver() {
+                observers.forEach(function (observer) {
+                    var records = observer.takeRecords();
+                    if (records.length) observer.callback(records);
+                });
+            }
+            var document = {
+                scrollingElement: {scrollHeight: 0},
+                querySelectorAll: function () { queries++; return elements.slice(); }
+            };
+            var window = {scrollTo: function () {}};
+            function add(count) { for (var i = 0; i < count; i++) elements.push(new Element()); mutate(); }
+            function replace(count) { elements = []; add(count); }
+            function harvest(limit, prune) {
+                deliver();
+                return (function () { %s }).apply(null, [{using: 'css selector', value: '.item'}, 'innerText', prune, limit, 'key']);
+            }
+            function print(value) { console.log(JSON.stringify(value) + ' ' + queries); }
+            """;
+
+    @TempDir
+    Path directory;
+
+    static AutomatedBrowser browser(List<List<String>> rounds) {
+        Iterator<List<String>> iterator = rounds.iterator();
+        StubDriver stub = new StubDriver((script, parameters) -> iterator.hasNext() ? iterator.next() : List.of());
+        return new AutomatedBrowser(stub.getDriver());
+    }
+
+    @Test
+    void testDeltaByRound() {
+        AutomatedBrowser browser = browser(List.of(List.of("a", "b"), List.of(), List.of("c")));
+        List<List<String>> deltas = new ArrayList<>();
+
+        int total = browser.harvest(By.cssSelector(".item"))
+                .withExhaustion(2, Duration.ZERO)
+                .harvest(deltas::add);
+
+        assertEquals(3, total);
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), deltas);
+    }
+
+    @Test
+    void testLimits() {
+        AutomatedBrowser browser = browser(List.of(List.of("a"), List.of("b"), List.of("c"), List.of("d")));
+
+        List<String> items = browser.harvest(By.cssSelector(".item"))
+                .withExhaustion(1, Duration.ZERO)
+                .withLimits(100, 2)
+                .items()
+                .toList();
+
+        assertEquals(List.of("a", "b"), items);
+    }
+
+    @Test
+    void testPositionKeptByHarvester() {
+        List<Object> keys = new ArrayList<>();
+        StubDriver stub = new StubDriver((script, parameters) -> {
+            keys.add(parameters[parameters.length - 1]);
+            return List.of("item");
+        });
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+
+        browser.harvest(By.cssSelector(".item")).withLimits(100, 2).withExhaustion(1, Duration.ZERO).items().toList();
+        browser.harvest(By.cssSelector(".item")).withLimits(100, 1).withExhaustion(1, Duration.ZERO).items().toList();
+
+        assertEquals(3, keys.size());
+        assertEquals(keys.get(0), keys.get(1));
+        assertNotEquals(keys.get(0), keys.get(2));
+    }
+
+    List<String> runScript(String scenario) throws IOException, InterruptedException {
+        Path script = directory.resolve("harvest.js");
+        Files.writeString(script, DOCUMENT.formatted(ScrollHarvester.SCRIPT) + scenario, UTF_8);
+        Process process;
+        try {
+            process = new ProcessBuilder("node", script.toString()).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            assumeTrue(false, "Node.js is not available to execute the script");
+            throw e;
+        }
+        List<String> lines = new String(process.getInputStream().readAllBytes(), UTF_8).lines().toList();
+        assertEquals(0, process.waitFor(), String.join("\n", lines));
+        return lines;
+    }
+
+    @Test
+    void testScriptHarvestsNewItems() throws Exception {
+        List<String> lines = runScript("""
+                add(3);
+                print(harvest(10, false));
+                print(harvest(10, false));
+                add(2);
+                print(harvest(10, false));
+                add(3);
+                print(harvest(2, false));
+                print(harvest(2, false));
+                print(elements.filter(function (element) { return element.hasAttribute('data-automated-browser-harvested'); }).length);
+                """);
+
+        assertEquals(List.of(
+                "[\"item-0\",\"item-1\",\"item-2\"] 1",
+                // No element added, so the items are not queried again
+                "[] 1",
+                "[\"item-3\",\"item-4\"] 2",
+                "[\"item-5\",\"item-6\"] 3",
+                "[\"item-7\"] 3",
+                "8 3"), lines);
+    }
+
+    @Test
+    void testScriptRestartsWhenPageChanges() throws Exception {
+        List<String> lines = runScript("""
+                add(3);
+                print(harvest(10, false));
+                replace(2);
+                print(harvest(10, false));
+                replace(4);
+                print(harvest(10, false));
+                """);
+
+        assertEquals(List.of(
+                "[\"item-0\",\"item-1\",\"item-2\"] 1",
+                // Less items than the last position
+                "[\"item-3\",\"item-4\"] 2",
+                // The item before the last position is not marked
+                "[\"item-5\",\"item-6\",\"item-7\",\"item-8\"] 3"), lines);
+    }
+
+    @Test
+    void testScriptPrunesHarvestedItems() throws Exception {
+        List<String> lines = runScript("""
+                add(4);
+                print(harvest(10, true));
+                print(elements.map(function (element) { return element.innerText; }));
+                print(harvest(10, true));
+                add(2);
+                print(harvest(10, true));
+                print(elements.map(function (element) { return element.innerText; }));
+                """);
+
+        assertEquals(List.of(
+                "[\"item-0\",\"item-1\",\"item-2\",\"item-3\"] 1",
+                // The last harvested item is kept as anchor
+                "[\"item-3\"] 1",
+                // The removals done by the script itself do not trigger a query
+                "[] 1",
+                "[\"item-4\",\"item-5\"] 2",
+                "[\"item-5\"] 2"), lines);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.chavaillaz.browser.grid;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.exception.BrowserException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+class RemoteEndpointSchedulerTest {
+
+    private final Set<HttpServer> servers = new HashSet<>();
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    URL startEndpoint(boolean ready) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/status", exchange -> {
+            byte[] body = ("{\"value\": {\"ready\": " + ready + ", \"message\": \"stand-in\"}}").getBytes(UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream stream = exchange.getResponseBody()) {
+                stream.write(body);
+            }
+        });
+        server.start();
+        servers.add(server);
+        return new URL("http://localhost:" + server.getAddress().getPort() + "/");
+    }
+
+    @Test
+    void testLeastLoadedEndpoint() throws Exception {
+        URL small = startEndpoint(true);
+        URL large = startEndpoint(true);
+        RemoteEndpointScheduler scheduler = new RemoteEndpointScheduler()
+                .withSessionFactory((url, capabilities) -> new StubDriver().getDriver())
+                .withEndpoint(small, 1)
+                .withEndpoint(large, 3);
+
+        RemoteSession first = scheduler.createSession(new ChromeOptions());
+        RemoteSession second = scheduler.createSession(new ChromeOptions());
+        RemoteSession third = scheduler.createSession(new ChromeOptions());
+        RemoteSession fourth = scheduler.createSession(new ChromeOptions());
+
+        assertEquals(small, first.getEndpoint().getUrl());
+        assertEquals(large, second.getEndpoint().getUrl());
+        assertEquals(large, third.getEndpoint().getUrl());
+        assertEquals(large, fourth.getEndpoint().getUrl());
+        assertThrows(BrowserException.class, () -> scheduler.createSession(new ChromeOptions()));
+
+        first.close();
+        first.close();
+        assertEquals(0, scheduler.getMetrics().get(0).activeSessions());
+        assertEquals(small, scheduler.createSession(new ChromeOptions()).getEndpoint().getUrl());
+    }
+
+    @Test
+    void testEjectionAfterFailures() throws Exception {
+        URL broken = startEndpoint(true);
+        URL working = startEndpoint(true);
+        RemoteEndpointScheduler scheduler = new RemoteEndpointScheduler()
+                .withEjection(1, Duration.ofMinutes(1))
+                .withSessionFactory((url, capabilities) -> {
+                    if (url.equals(broken)) {
+                        throw new IllegalStateException("Node unreachable");
+                    }
+                    return new StubDriver().getDriver();
+                })
+                .withEndpoint(broken, 10)
+                .withEndpoint(working, 10);
+
+        assertEquals(working, scheduler.createSession(new ChromeOptions()).getEndpoint().getUrl());
+        assertEquals(working, scheduler.createSession(new ChromeOptions()).getEndpoint().getUrl());
+
+        EndpointMetrics brokenMetrics = scheduler.getMetrics().get(0);
+        assertTrue(brokenMetrics.ejected());
+        assertEquals(1, brokenMetrics.failedSessions());
+        assertEquals(2, scheduler.getMetrics().get(1).createdSessions());
+    }
+
+    @Test
+    void testHealthChecks() throws Exception {
+        URL ready = startEndpoint(true);
+        URL busy = startEndpoint(false);
+        RemoteEndpointScheduler scheduler = new RemoteEndpointScheduler()
+                .withSessionFactory((url, capabilities) -> new StubDriver().getDriver())
+                .withEndpoint(busy, 10)
+                .withEndpoint(ready, 1);
+
+        scheduler.checkHealth();
+
+        assertFalse(scheduler.getMetrics().get(0).healthy());
+        assertTrue(scheduler.getMetrics().get(1).healthy());
+        assertEquals(ready, scheduler.createSession(new ChromeOptions()).getEndpoint().getUrl());
+        assertThrows(BrowserException.class, () -> scheduler.createSession(new ChromeOptions()));
+    }
+
+    @Test
+    void testInvalidCapacity() throws Exception {
+        URL url = startEndpoint(true);
+        RemoteEndpointScheduler scheduler = new RemoteEndpointScheduler();
+        assertThrows(BrowserException.class, () -> scheduler.withEndpoint(url, 0));
+        assertTrue(scheduler.getEndpoints().isEmpty());
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.chavaillaz.browser.load;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP server serving the fixture pages of the load tests:
+ * <ul>
+ *     <li>{@code /static}: a page entirely rendered by the server</li>
+ *     <li>{@code /rendered}: a page rendered by a script from the data of {@code /api/rows}</li>
+ *     <li>{@code /slow}: a page answered after a delay</li>
+ *     <li>{@code /scroll}: a page loading more items each time it is scrolled to the bottom</li>
+ * </ul>
+ */
+public class FixtureServer implements Closeable {
+
+    public static final int ROWS = 50;
+    public static final int SCROLL_ITEMS = 200;
+    public static final int SCROLL_BATCH = 20;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+    private final long slowDelay;
+
+    /**
+     * Creates a new fixture server on a free port.
+     *
+     * @param slowDelay The delay in milliseconds before answering the slow page
+     * @throws IOException If the server cannot be created
+     */
+    public FixtureServer(long slowDelay) throws IOException {
+        this.slowDelay = slowDelay;
+        this.server = HttpServer.create(new InetSocketAddress(0), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/static", exchange -> send(exchange, "text/html", page("Static", paragraphs())));
+        this.server.createContext("/rendered", exchange -> send(exchange, "text/html", page("Rendered", """
+                <div id="content"></div>
+                <script>
+                    fetch('/api/rows')
+                        .then(response => response.json())
+                        .then(rows => rows.forEach(row => {
+                            const element = document.createElement('div');
+                            element.className = 'row';
+                            element.textContent = row.name + ': ' + row.value;
+                            document.getElementById('content').appendChild(element);
+                        }));
+                </script>
+                """)));
+        this.server.createContext("/api/rows", exchange -> send(exchange, "application/json", rows()));
+        this.server.createContext("/slow", this::sendSlow);
+        this.server.createContext("/scroll", exchange -> send(exchange, "text/html", page("Scroll", """
+                <div id="items"></div>
+                <script>
+                    const items = document.getElementById('items');
+                    function load() {
+                        for (let i = 0; i < %d && items.children.length < %d; i++) {
+                            const item = document.createElement('div');
+                            item.className = 'item';
+                            item.style.height = '80px';
+                            item.textContent = 'Item ' + (items.children.length + 1);
+                            items.appendChild(item);
+                        }
+                    }
+                    window.addEventListener('scroll', () => {
+                        if (window.innerHeight + window.scrollY >= document.body.scrollHeight - 200) {
+                            setTimeout(load, 50);
+                        }
+                    });
+                    load();
+                </script>
+                """.formatted(SCROLL_BATCH, SCROLL_ITEMS))));
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @return The current instance
+     */
+    public FixtureServer start() {
+        server.start();
+        return this;
+    }
+
+    /**
+     * Gets the port on which the server listens.
+     *
+     * @return The server port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void sendSlow(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(slowDelay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        send(exchange, "text/html", page("Slow", paragraphs()));
+    }
+
+    private static String page(String title, String body) {
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head><title>%s</title></head>
+                <body>
+                <h1 id="title">%s</h1>
+                %s
+                </body>
+                </html>
+                """.formatted(title, title, body);
+    }
+
+    private static String paragraphs() {
+        return IntStream.rangeClosed(1, 20)
+                .mapToObj(i -> "<p class=\"paragraph\">Paragraph " + i + "</p>")
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String rows() {
+        return IntStream.rangeClosed(1, ROWS)
+                .mapToObj(i -> "{\"name\":\"Row " + i + "\",\"value\":" + i * 7 + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private static void send(HttpExchange exchange, String contentType, String content) throws IOException {
+        byte[] body = content.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.chavaillaz.browser.load;
+
+import static com.chavaillaz.browser.utils.BrowserUtils.getChromeOptions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.testcontainers.containers.BrowserWebDriverContainer.VncRecordingMode.SKIP;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import com.chavaillaz.browser.WebDriverContainer;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.engine.AutomatedBrowserFlow;
+import com.chavaillaz.browser.metrics.FlowMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testcontainers.Testcontainers;
+import org.testcontainers.containers.BrowserWebDriverContainer;
+
+/**
+ * Load test driving concurrent flows against the fixture pages, comparing the results to a stored baseline.
+ * It is excluded from the default build and can be run with {@code mvn test -Pload}, with the optional properties:
+ * <ul>
+ *     <li>{@code load.flows}: the number of concurrent flows (default 4)</li>
+ *     <li>{@code load.iterations}: the number of flows executed by each browser (default 5)</li>
+ *     <li>{@code load.tolerance}: the relative degradation tolerated compared to the baseline (default 0.25)</li>
+ *     <li>{@code load.baseline}: the file of the baseline, recorded from the results when it is missing</li>
+ *     <li>{@code load.updateBaseline}: {@code true} to create or replace the baseline with the results</li>
+ * </ul>
+ */
+@Slf4j
+@Tag("load")
+class LoadTest {
+
+    public static final int FLOWS = Integer.getInteger("load.flows", 4);
+    public static final int ITERATIONS = Integer.getInteger("load.iterations", 5);
+    public static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+    public static final long SLACK = 100;
+    public static final Path BASELINE = Path.of(System.getProperty("load.baseline", "src/test/resources/load-baseline.properties"));
+    public static final Path RESULT = Path.of("target/load-result.properties");
+    public static final List<String> STEPS = List.of("static", "rendered", "slow", "scroll");
+
+    @Test
+    void testConcurrentFlows() throws Exception {
+        try (FixtureServer server = new FixtureServer(500).start()) {
+            Testcontainers.exposeHostPorts(server.getPort());
+            try (BrowserWebDriverContainer<?> chrome = new WebDriverContainer<>()
+                    .withRecordingMode(SKIP, null)
+                    .withAccessToHost(true)
+                    .withEnv("SE_NODE_MAX_SESSIONS", String.valueOf(FLOWS))
+                    .withEnv("SE_NODE_OVERRIDE_MAX_SESSIONS", "true")) {
+                chrome.start();
+                String baseUrl = "http://host.testcontainers.internal:" + server.getPort();
+                // Without this flag, the heap usage given by the browser is rounded and only updated every few minutes
+                ChromeOptions options = getChromeOptions();
+                options.addArguments("--enable-precise-memory-info");
+                LoadTestResult result = run(() -> new RemoteWebDriver(chrome.getSeleniumAddress(), options), baseUrl);
+                log.info("Load test results: {}", result);
+                assertEquals(0, result.failedFlows());
+                write(result, RESULT);
+                compareToBaseline(result);
+            }
+        }
+    }
+
+    LoadTestResult run(Supplier<WebDriver> driverFactory, String baseUrl) throws Exception {
+        List<FlowMetrics> flows = Collections.synchronizedList(new ArrayList<>());
+        List<WebDriver> drivers = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(FLOWS);
+        try {
+            // Sessions are created before starting the timer, so that their startup is not measured
+            List<Future<?>> sessions = new ArrayList<>();
+            for (int i = 0; i < FLOWS; i++) {
+                sessions.add(executor.submit(() -> drivers.add(driverFactory.get())));
+            }
+            for (Future<?> session : sessions) {
+                session.get();
+            }
+
+            long start = System.currentTimeMillis();
+            List<Future<?>> workers = new ArrayList<>();
+            for (WebDriver driver : drivers) {
+                workers.add(executor.submit(() -> {
+                    try (AutomatedBrowser browser = new AutomatedBrowser(driver)) {
+                        browser.setPageMetricsCollection(true);
+                        for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                            flows.add(runFlow(browser, baseUrl));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return LoadTestResult.of(STEPS, flows, System.currentTimeMillis() - start);
+        } finally {
+            executor.shutdownNow();
+            drivers.forEach(WebDriver::quit);
+        }
+    }
+
+    FlowMetrics runFlow(AutomatedBrowser browser, String baseUrl) {
+        return new AutomatedBrowserFlow<AutomatedBrowser, Void>(browser)
+                .withDefaultExceptionHandler(e -> log.warn("Step failed", e))
+                .withStep(b -> b.navigate(baseUrl + "/static", By.id("title")))
+                .withStep(b -> {
+                    b.navigate(baseUrl + "/rendered");
+                    b.wait(By.cssSelector("#content .row:nth-child(" + FixtureServer.ROWS + ")"));
+                })
+                .withStep(b -> b.navigate(baseUrl + "/slow", By.id("title")))
+                .withStep(b -> {
+                    b.navigate(baseUrl + "/scroll", By.cssSelector("#items .item"));
+                    long items = b.harvest(By.cssSelector("#items .item"))
+                            .withLimits(FixtureServer.SCROLL_ITEMS, 100)
+                            .items()
+                            .count();
+                    if (items != FixtureServer.SCROLL_ITEMS) {
+                        throw new IllegalStateException("Only " + items + " items harvested");
+                    }
+                })
+                .complete()
+                .getMetrics();
+    }
+
+    void compareToBaseline(LoadTestResult result) throws IOException {
+        if (Boolean.getBoolean("load.updateBaseline")) {
+            write(result, BASELINE);
+            log.info("Load test baseline written to {}", BASELINE);
+            return;
+        }
+        if (!Files.exists(BASELINE)) {
+            // Baselines depend on the machine, so the first run on a machine records it instead of comparing
+            write(result, BASELINE);
+            log.warn("No load test baseline found, results recorded as baseline in {} without comparison", BASELINE);
+            return;
+        }
+
+        Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(BASELINE)) {
+            properties.load(input);
+        }
+        List<String> regressions = result.compare(LoadTestResult.of(properties), TOLERANCE, SLACK);
+        regressions.forEach(log::error);
+        assertTrue(regressions.isEmpty(), "Performance regressions compared to " + BASELINE);
+    }
+
+    static void write(LoadTestResult result, Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (OutputStream output = Files.newOutputStream(file)) {
+            result.toProperties().store(output, "Load test with " + FLOWS + " concurrent flows of " + ITERATIONS + " iterations");
+        }
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.chavaillaz.browser.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+import com.chavaillaz.browser.metrics.FlowMetrics;
+import com.chavaillaz.browser.metrics.HeapUsage;
+import com.chavaillaz.browser.metrics.PageMetrics;
+import com.chavaillaz.browser.metrics.StepMetrics;
+
+/**
+ * Results of a load test, comparable to the ones of a previous run stored as baseline.
+ *
+ * @param flows       The number of flows executed
+ * @param failedFlows The number of flows with at least one failed step
+ * @param throughput  The number of flows executed per second
+ * @param maxHeapUsed The highest JavaScript heap used by a page, in bytes, which is not the memory of the browser process
+ * @param steps       The latencies of each step of the flows
+ */
+public record LoadTestResult(
+        int flows,
+        int failedFlows,
+        double throughput,
+        long maxHeapUsed,
+        List<StepStatistics> steps) {
+
+    /**
+     * Computes the results of the flows executed.
+     *
+     * @param stepNames The names of the steps of the flows, in their order
+     * @param flows     The metrics of the flows executed
+     * @param elapsed   The wall-clock time in milliseconds spent executing all the flows
+     * @return The results of the load test
+     */
+    public static LoadTestResult of(List<String> stepNames, List<FlowMetrics> flows, long elapsed) {
+        List<StepStatistics> steps = new ArrayList<>();
+        for (int index = 1; index <= stepNames.size(); index++) {
+            int stepIndex = index;
+            List<StepMetrics> executions = flows.stream()
+                    .flatMap(flow -> flow.getSteps().stream())
+                    .filter(step -> step.index() == stepIndex)
+                    .toList();
+            steps.add(StepStatistics.of(stepNames.get(index - 1), executions));
+        }
+
+        int failed = (int) flows.stream()
+                .filter(flow -> flow.getSteps().stream().anyMatch(StepMetrics::failed))
+                .count();
+        long maxHeapUsed = flows.stream()
+                .flatMap(flow -> flow.getSteps().stream())
+                .flatMap(step -> step.pages().stream())
+                .map(PageMetrics::heap)
+                .filter(Objects::nonNull)
+                .mapToLong(HeapUsage::used)
+                .max()
+                .orElse(0);
+        return new LoadTestResult(flows.size(), failed, flows.size() * 1000.0 / Math.max(1, elapsed), maxHeapUsed, steps);
+    }
+
+    /**
+     * Lists the regressions compared to a baseline.
+     *
+     * @param baseline  The results of the baseline run
+     * @param tolerance The relative degradation tolerated (e.g. 0.25 for 25%)
+     * @param slack     The absolute degradation of latencies tolerated in milliseconds, to ignore noise on fast steps
+     * @return The descriptions of the regressions found
+     */
+    public List<String> compare(LoadTestResult baseline, double tolerance, long slack) {
+        List<String> regressions = new ArrayList<>();
+        if (throughput < baseline.throughput() * (1 - tolerance)) {
+            regressions.add(String.format("Throughput %.2f flows/s below baseline %.2f flows/s",
+                    throughput, baseline.throughput()));
+        }
+        if (baseline.maxHeapUsed() > 0 && maxHeapUsed > baseline.maxHeapUsed() * (1 + tolerance)) {
+            regressions.add(String.format("Heap used %d bytes above baseline %d bytes",
+                    maxHeapUsed, baseline.maxHeapUsed()));
+        }
+        for (StepStatistics step : steps) {
+            baseline.steps().stream()
+                    .filter(previous -> previous.name().equals(step.name()))
+                    .findFirst()
+                    .filter(previous -> step.p95() > previous.p95() * (1 + tolerance) + slack)
+                    .ifPresent(previous -> regressions.add(String.format("Step %s p95 %d ms above baseline %d ms",
+                            step.name(), step.p95(), previous.p95())));
+        }
+        return regressions;
+    }
+
+    /**
+     * Converts the results to properties, to store them as baseline.
+     *
+     * @return The properties containing the results
+     */
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("flows", String.valueOf(flows));
+        properties.setProperty("failedFlows", String.valueOf(failedFlows));
+        properties.setProperty("throughput", String.valueOf(throughput));
+        properties.setProperty("maxHeapUsed", String.valueOf(maxHeapUsed));
+        properties.setProperty("steps", String.join(",", steps.stream().map(StepStatistics::name).toList()));
+        for (StepStatistics step : steps) {
+            properties.setProperty("step." + step.name(), step.count() + "," + step.failures() + ","
+                    + step.p50() + "," + step.p95() + "," + step.p99() + "," + step.max());
+        }
+        return properties;
+    }
+
+    /**
+     * Reads results stored as properties.
+     *
+     * @param properties The properties containing the results
+     * @return The results read
+     */
+    public static LoadTestResult of(Properties properties) {
+        List<StepStatistics> steps = Arrays.stream(properties.getProperty("steps").split(","))
+                .map(name -> {
+                    long[] values = Arrays.stream(properties.getProperty("step." + name).split(","))
+                            .mapToLong(Long::parseLong)
+                            .toArray();
+                    return new StepStatistics(name, (int) values[0], (int) values[1],
+                            values[2], values[3], values[4], values[5]);
+                })
+                .toList();
+        return new LoadTestResult(
+                Integer.parseInt(properties.getProperty("flows")),
+                Integer.parseInt(properties.getProperty("failedFlows")),
+                Double.parseDouble(properties.getProperty("throughput")),
+                Long.parseLong(properties.getProperty("maxHeapUsed")),
+                steps);
+    }
+
+    /**
+     * Latencies of a step of the flows.
+     *
+     * @param name     The name of the step
+     * @param count    The number of executions of the step
+     * @param failures The number of failed executions of the step
+     * @param p50      The median latency in milliseconds
+     * @param p95      The 95th percentile latency in milliseconds
+     * @param p99      The 99th percentile latency in milliseconds
+     * @param max      The highest latency in milliseconds
+     */
+    public record StepStatistics(
+            String name,
+            int count,
+            int failures,
+            long p50,
+            long p95,
+            long p99,
+            long max) {
+
+        static StepStatistics of(String name, List<StepMetrics> executions) {
+            long[] latencies = executions.stream()
+                    .mapToLong(step -> step.duration().toMillis())
+                    .sorted()
+                    .toArray();
+            int failures = (int) executions.stream().filter(StepMetrics::failed).count();
+            return new StepStatistics(name, latencies.length, failures,
+                    percentile(latencies, 0.5),
+                    percentile(latencies, 0.95),
+                    percentile(latencies, 0.99),
+                    percentile(latencies, 1));
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+    }
+
+}
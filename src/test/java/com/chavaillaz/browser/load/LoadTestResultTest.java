@@ -0,0 +1,38 @@
+package com.chavaillaz.browser.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.chavaillaz.browser.metrics.FlowMetrics;
+import com.chavaillaz.browser.metrics.StepMetrics;
+import org.junit.jupiter.api.Test;
+
+class LoadTestResultTest {
+
+    static FlowMetrics flow(long first, long second) {
+        FlowMetrics flow = new FlowMetrics();
+        flow.addStep(new StepMetrics(1, Duration.ofMillis(first), false, List.of()));
+        flow.addStep(new StepMetrics(2, Duration.ofMillis(second), second > 1000, List.of()));
+        return flow;
+    }
+
+    @Test
+    void testBaselineComparison() {
+        List<String> steps = List.of("static", "slow");
+        LoadTestResult baseline = LoadTestResult.of(steps, List.of(flow(100, 500), flow(120, 600)), 1000);
+        assertEquals(2.0, baseline.throughput());
+        assertEquals(new LoadTestResult.StepStatistics("slow", 2, 0, 500, 600, 600, 600), baseline.steps().get(1));
+        assertEquals(baseline, LoadTestResult.of(baseline.toProperties()));
+
+        LoadTestResult similar = LoadTestResult.of(steps, List.of(flow(150, 550), flow(110, 650)), 1100);
+        assertTrue(similar.compare(baseline, 0.25, 100).isEmpty());
+
+        LoadTestResult slower = LoadTestResult.of(steps, List.of(flow(100, 900), flow(120, 1200)), 2000);
+        assertEquals(1, slower.failedFlows());
+        assertEquals(2, slower.compare(baseline, 0.25, 100).size());
+    }
+
+}
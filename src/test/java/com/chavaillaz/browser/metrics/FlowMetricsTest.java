@@ -0,0 +1,110 @@
+package com.chavaillaz.browser.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.engine.AutomatedBrowserFlow;
+import org.junit.jupiter.api.Test;
+
+class FlowMetricsTest {
+
+    static Map<String, Object> values(double load) {
+        return values(load, 1000);
+    }
+
+    static Map<String, Object> values(double load, double timeOrigin) {
+        return Map.of(
+                "url", "https://localhost/",
+                "timeOrigin", timeOrigin,
+                "navigation", Map.of("type", "navigate", "load", load, "transferSize", 1024L),
+                "resources", List.of(Map.of("name", "https://localhost/app.js", "duration", 12.5)),
+                "paints", List.of(Map.of("name", "first-contentful-paint", "startTime", 80L)));
+    }
+
+    static PageMetrics page(double load) {
+        return PageMetrics.of(values(load));
+    }
+
+    @Test
+    void testPageMetricsParsing() {
+        PageMetrics metrics = page(250.5);
+        assertEquals("https://localhost/", metrics.url());
+        assertEquals(1000, metrics.timeOrigin());
+        assertEquals(250.5, metrics.loadTime());
+        assertEquals(1024L, metrics.navigation().transferSize());
+        assertEquals(12.5, metrics.resources().get(0).duration());
+        assertEquals(80, metrics.paint("first-contentful-paint").orElseThrow().startTime());
+        assertTrue(metrics.paint("largest-contentful-paint").isEmpty());
+        assertNull(metrics.heap());
+    }
+
+    @Test
+    void testAutomationTime() {
+        FlowMetrics flow = new FlowMetrics();
+        flow.addStep(new StepMetrics(1, Duration.ofMillis(1000), false, List.of(page(300), page(200))));
+        flow.addStep(new StepMetrics(2, Duration.ofMillis(100), true, List.of(page(400))));
+
+        assertEquals(Duration.ofMillis(500), flow.getSteps().get(0).automationTime());
+        assertEquals(Duration.ZERO, flow.getSteps().get(1).automationTime());
+        assertEquals(Duration.ofMillis(1100), flow.getDuration());
+        assertEquals(Duration.ofMillis(900), flow.getPageLoadTime());
+    }
+
+    @Test
+    void testPageMetricsAttachedToStep() {
+        StubDriver stub = new StubDriver((script, arguments) -> PageMetrics.SCRIPT.equals(script) ? values(150) : null);
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+        browser.setPageMetricsCollection(true);
+
+        FlowMetrics metrics = new AutomatedBrowserFlow<AutomatedBrowser, Void>(browser)
+                .withStep(b -> b.navigate("https://localhost/"))
+                .withStep(b -> b.execute("return 1"))
+                .withStep(b -> b.navigate("https://localhost/"))
+                .getMetrics();
+
+        assertEquals(List.of(1, 0, 1), metrics.getSteps().stream().map(step -> step.pages().size()).toList());
+        assertEquals(150, metrics.getSteps().get(0).pages().get(0).loadTime());
+    }
+
+    @Test
+    void testPageMetricsCollectedAfterStepLoadingDocument() {
+        AtomicInteger documents = new AtomicInteger();
+        StubDriver stub = new StubDriver((script, arguments) -> switch (script) {
+            case PageMetrics.TIME_ORIGIN_SCRIPT -> documents.get();
+            case PageMetrics.SCRIPT -> values(documents.get() * 100, documents.get());
+            case "link.click()" -> documents.incrementAndGet();
+            default -> null;
+        });
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+        browser.setPageMetricsCollection(true);
+
+        FlowMetrics metrics = new AutomatedBrowserFlow<AutomatedBrowser, Void>(browser)
+                .withStep(b -> b.execute("link.click()"))
+                .withStep(b -> b.execute("return 1"))
+                .withStep(b -> b.execute("link.click()"))
+                .getMetrics();
+
+        assertEquals(List.of(1, 0, 1), metrics.getSteps().stream().map(step -> step.pages().size()).toList());
+        assertEquals(200, metrics.getSteps().get(2).pages().get(0).loadTime());
+    }
+
+    @Test
+    void testCollectedPageMetricsBounded() {
+        StubDriver stub = new StubDriver((script, arguments) -> values(100));
+        AutomatedBrowser browser = new AutomatedBrowser(stub.getDriver());
+        for (int i = 0; i <= AutomatedBrowser.MAX_COLLECTED_PAGE_METRICS; i++) {
+            browser.collectPageMetrics();
+        }
+        assertEquals(AutomatedBrowser.MAX_COLLECTED_PAGE_METRICS, browser.drainPageMetrics().size());
+        assertTrue(browser.drainPageMetrics().isEmpty());
+    }
+
+}
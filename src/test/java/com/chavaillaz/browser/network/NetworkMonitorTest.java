@@ -0,0 +1,155 @@
+package com.chavaillaz.browser.network;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.chavaillaz.browser.StubDevTools;
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.exception.BrowserException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.devtools.DevTools;
+
+class NetworkMonitorTest {
+
+    private final ScheduledExecutorService events = Executors.newSingleThreadScheduledExecutor();
+    private final NetworkMonitor monitor = new NetworkMonitor(null);
+
+    @AfterEach
+    void shutdown() {
+        events.shutdownNow();
+    }
+
+    @Test
+    void testNetworkIdle() {
+        monitor.onRequestSent(Map.of("requestId", "1"));
+        monitor.onRequestSent(Map.of("requestId", "2"));
+        assertEquals(2, monitor.getInFlight());
+
+        events.schedule(() -> monitor.onLoadingDone(Map.of("requestId", "1")), 100, TimeUnit.MILLISECONDS);
+        events.schedule(() -> monitor.onLoadingDone(Map.of("requestId", "2")), 200, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        monitor.awaitNetworkIdle(0, ofMillis(100), ofSeconds(5));
+        assertTrue(System.nanoTime() - start >= ofMillis(300).toNanos());
+        assertEquals(0, monitor.getInFlight());
+
+        // One long request is tolerated with a threshold of one request in flight
+        monitor.onRequestSent(Map.of("requestId", "3"));
+        monitor.awaitNetworkIdle(1, ofMillis(50), ofSeconds(5));
+        assertThrows(TimeoutException.class, () -> monitor.awaitNetworkIdle(0, ofMillis(50), ofMillis(200)));
+    }
+
+    @Test
+    void testExpectedResponse() {
+        CompletableFuture<NetworkResponse> response = monitor.expectResponse(url -> url.endsWith("/api/search"));
+        monitor.onResponseReceived(Map.of("requestId", "1", "type", "Image",
+                "response", Map.of("url", "https://localhost/logo.png", "status", 200, "mimeType", "image/png")));
+        assertFalse(response.isDone());
+
+        events.schedule(() -> monitor.onResponseReceived(Map.of("requestId", "2", "type", "XHR",
+                "response", Map.of("url", "https://localhost/api/search", "status", 201, "mimeType", "application/json"))),
+                50, TimeUnit.MILLISECONDS);
+        NetworkResponse received = NetworkMonitor.await(response, ofSeconds(5), "search response");
+        assertEquals(new NetworkResponse("2", "https://localhost/api/search", 201, "application/json", "XHR"), received);
+
+        CompletableFuture<NetworkResponse> missing = monitor.expectResponse(url -> url.contains("missing"));
+        assertThrows(TimeoutException.class, () -> NetworkMonitor.await(missing, ofMillis(50), "missing response"));
+        assertTrue(missing.isCancelled());
+    }
+
+    @Test
+    void testDomContentLoaded() {
+        CompletableFuture<Void> loaded = monitor.expectDomContentLoaded();
+        events.schedule(monitor::onDomContentLoaded, 50, TimeUnit.MILLISECONDS);
+        NetworkMonitor.await(loaded, ofSeconds(5), "DOMContentLoaded event");
+        assertTrue(loaded.isDone());
+    }
+
+    @Test
+    void testCloseIgnoresEvents() {
+        StubDevTools devTools = new StubDevTools();
+        NetworkMonitor started = new NetworkMonitor(devTools).start();
+        devTools.fire("Network.requestWillBeSent", Map.of("requestId", "1"));
+        assertEquals(1, started.getInFlight());
+
+        CompletableFuture<Void> loaded = started.expectDomContentLoaded();
+        started.close();
+        assertTrue(loaded.isCompletedExceptionally());
+        assertEquals(0, started.getInFlight());
+        assertEquals(List.of("Network.enable", "Page.enable", "Network.disable", "Page.disable"), devTools.getCommandMethods());
+
+        devTools.fire("Network.requestWillBeSent", Map.of("requestId", "2"));
+        assertEquals(0, started.getInFlight());
+
+        // Restarting keeps a single listener for each event
+        started.start();
+        assertEquals(1, devTools.getListenerCount("Network.requestWillBeSent"));
+        devTools.fire("Network.requestWillBeSent", Map.of("requestId", "3"));
+        assertEquals(1, started.getInFlight());
+    }
+
+    @Test
+    void testCloseFailsWaiters() {
+        NetworkMonitor started = new NetworkMonitor(new StubDevTools()).start();
+        started.onRequestSent(Map.of("requestId", "1"));
+        CompletableFuture<NetworkResponse> response = started.expectResponse(url -> true);
+
+        events.schedule(started::close, 100, TimeUnit.MILLISECONDS);
+        BrowserException exception = assertThrows(BrowserException.class,
+                () -> started.awaitNetworkIdle(0, ofMillis(50), ofSeconds(5)));
+        assertEquals("Network monitoring stopped", exception.getMessage());
+        assertTrue(response.isCompletedExceptionally());
+        assertEquals(0, started.getExpectations());
+    }
+
+    @Test
+    void testMonitorDiscardedWithBrowser() throws Exception {
+        StubDevTools devTools = new StubDevTools();
+        AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver()) {
+            @Override
+            public synchronized DevTools getDevTools() {
+                return devTools;
+            }
+        };
+
+        NetworkMonitor first = browser.getNetworkMonitor();
+        browser.close();
+        NetworkMonitor second = browser.getNetworkMonitor();
+        assertNotSame(first, second);
+        assertEquals(List.of("Network.enable", "Page.enable", "Network.disable", "Page.disable",
+                "Network.enable", "Page.enable"), devTools.getCommandMethods());
+    }
+
+    @Test
+    void testExpectationRemovedWhenActionFails() {
+        AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver()) {
+            @Override
+            public synchronized NetworkMonitor getNetworkMonitor() {
+                return monitor;
+            }
+        };
+
+        Runnable failing = () -> {
+            throw new IllegalStateException("Element not found");
+        };
+        assertThrows(IllegalStateException.class, () -> browser.waitForResponse(url -> true, failing, ofSeconds(5)));
+        assertThrows(IllegalStateException.class, () -> browser.waitForDomContentLoaded(failing, ofSeconds(5)));
+        assertEquals(0, monitor.getExpectations());
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.chavaillaz.browser.recording;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+
+import com.chavaillaz.browser.StubDevTools;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScreencastRecorderTest {
+
+    public static final String FRAME_EVENT = "Page.screencastFrame";
+
+    @TempDir
+    Path directory;
+
+    static Map<String, Object> frame(String content, int sessionId) {
+        return Map.of("data", Base64.getEncoder().encodeToString(content.getBytes(UTF_8)), "sessionId", sessionId);
+    }
+
+    @Test
+    void testFramesWritten() throws IOException {
+        StubDevTools devTools = new StubDevTools();
+        Path target = directory.resolve("recording.mjpeg");
+        ScreencastRecorder recorder = new ScreencastRecorder(devTools, target, ScreencastFormat.MJPEG).start();
+        devTools.fire(FRAME_EVENT, frame("first", 1));
+        devTools.fire(FRAME_EVENT, frame("second", 2));
+        recorder.stop();
+
+        assertEquals(2, recorder.getWrittenFrames());
+        assertArrayEquals("firstsecond".getBytes(UTF_8), Files.readAllBytes(target));
+        assertEquals(2, devTools.getCommandMethods().stream().filter("Page.screencastFrameAck"::equals).count());
+    }
+
+    @Test
+    void testRestartKeepsSingleListener() {
+        StubDevTools devTools = new StubDevTools();
+        Path target = directory.resolve("frames");
+        ScreencastRecorder recorder = new ScreencastRecorder(devTools, target, ScreencastFormat.IMAGE_SEQUENCE);
+        recorder.start().stop();
+        recorder.start();
+        devTools.fire(FRAME_EVENT, frame("frame", 1));
+        recorder.stop();
+
+        assertEquals(1, devTools.getListenerCount(FRAME_EVENT));
+        assertEquals(1, recorder.getReceivedFrames());
+        assertTrue(Files.exists(target.resolve("frame-000001.jpg")));
+    }
+
+    @Test
+    void testNewRecordersShareListener() {
+        StubDevTools devTools = new StubDevTools();
+        ScreencastRecorder first = new ScreencastRecorder(devTools, directory.resolve("first"), ScreencastFormat.IMAGE_SEQUENCE);
+        first.start().stop();
+        ScreencastRecorder second = new ScreencastRecorder(devTools, directory.resolve("second"), ScreencastFormat.IMAGE_SEQUENCE);
+        second.start();
+        devTools.fire(FRAME_EVENT, frame("frame", 1));
+        second.stop();
+
+        assertEquals(1, devTools.getListenerCount(FRAME_EVENT));
+        assertEquals(0, first.getReceivedFrames());
+        assertEquals(1, second.getReceivedFrames());
+    }
+
+    @Test
+    void testWriterFailureStopsRecording() throws Exception {
+        StubDevTools devTools = new StubDevTools();
+        Path target = directory.resolve("frames");
+        ScreencastRecorder recorder = new ScreencastRecorder(devTools, target, ScreencastFormat.IMAGE_SEQUENCE).start();
+
+        // A file where the directory of the frames should be makes the writer fail
+        Files.delete(target);
+        Files.writeString(target, "not a directory");
+        devTools.fire(FRAME_EVENT, frame("failing", 1));
+
+        for (int i = 0; i < 100 && recorder.isRecording(); i++) {
+            Thread.sleep(20);
+        }
+        assertFalse(recorder.isRecording());
+        assertTrue(devTools.getCommandMethods().contains("Page.stopScreencast"));
+        devTools.fire(FRAME_EVENT, frame("ignored", 2));
+        assertEquals(1, recorder.getReceivedFrames());
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.chavaillaz.browser.screenshot;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import com.chavaillaz.browser.exception.BrowserException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScreenshotSinkTest {
+
+    @TempDir
+    Path directory;
+
+    static Map<String, byte[]> readArchive(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        int offset = 0;
+        while (offset + 512 <= content.length && content[offset] != 0) {
+            String name = new String(content, offset, 100, UTF_8).replace("\0", "");
+            int size = Integer.parseInt(new String(content, offset + 124, 11, UTF_8), 8);
+            entries.put(name, Arrays.copyOfRange(content, offset + 512, offset + 512 + size));
+            offset += 512 + (size + 511) / 512 * 512;
+        }
+        return entries;
+    }
+
+    @Test
+    void testContentAddressedDeduplication() throws IOException {
+        Path index = directory.resolve("index.tsv");
+        byte[] first = "first".getBytes(UTF_8);
+        byte[] second = "second".getBytes(UTF_8);
+
+        try (ContentAddressedScreenshotSink sink = new ContentAddressedScreenshotSink(new DirectoryScreenshotSink(directory.resolve("images")), index)) {
+            sink.accept("home.png", first);
+            sink.accept("search.png", second);
+            sink.accept("home-again.png", first);
+            assertEquals(1, sink.getDuplicates());
+        }
+
+        try (Stream<Path> images = Files.list(directory.resolve("images"))) {
+            assertEquals(2, images.count());
+        }
+        List<String> lines = Files.readAllLines(index, UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals(lines.get(0).split("\t")[1], lines.get(2).split("\t")[1]);
+
+        // Hashes already indexed are not stored again
+        try (ContentAddressedScreenshotSink sink = new ContentAddressedScreenshotSink(new DirectoryScreenshotSink(directory.resolve("images")), index)) {
+            sink.accept("home-later.png", first);
+            assertEquals(1, sink.getDuplicates());
+        }
+    }
+
+    @Test
+    void testContentAddressedStorageFailure() throws IOException {
+        Path index = directory.resolve("index.tsv");
+        byte[] image = "image".getBytes(UTF_8);
+        AtomicBoolean failing = new AtomicBoolean(true);
+        List<String> stored = new ArrayList<>();
+        ScreenshotSink storage = (name, content) -> {
+            if (failing.get()) {
+                throw new BrowserException("Storage unavailable");
+            }
+            stored.add(name);
+        };
+
+        try (ContentAddressedScreenshotSink sink = new ContentAddressedScreenshotSink(storage, index)) {
+            assertThrows(BrowserException.class, () -> sink.accept("home.png", image));
+            assertTrue(Files.readAllLines(index, UTF_8).isEmpty());
+
+            failing.set(false);
+            sink.accept("home.png", image);
+            assertEquals(1, stored.size());
+            assertEquals(0, sink.getDuplicates());
+        }
+        assertEquals(1, Files.readAllLines(index, UTF_8).size());
+    }
+
+    @Test
+    void testRollingArchives() throws IOException {
+        try (ArchiveScreenshotSink sink = new ArchiveScreenshotSink(directory, "screenshots", 2)) {
+            for (int i = 0; i < 5; i++) {
+                sink.accept("screenshot-" + i + ".png", new byte[]{(byte) i});
+            }
+        }
+
+        try (Stream<Path> archives = Files.list(directory)) {
+            assertEquals(3, archives.count());
+        }
+        Map<String, byte[]> entries = readArchive(directory.resolve("screenshots-00002.tar"));
+        assertEquals(List.of("screenshot-2.png", "screenshot-3.png"), List.copyOf(entries.keySet()));
+        assertArrayEquals(new byte[]{3}, entries.get("screenshot-3.png"));
+    }
+
+    @Test
+    void testArchiveReadableBeforeClose() throws IOException {
+        byte[] image = new byte[1000];
+        image[999] = 7;
+        ArchiveScreenshotSink sink = new ArchiveScreenshotSink(directory, "screenshots", 10);
+        sink.accept("first.png", image);
+        sink.accept("second.png", new byte[]{1});
+
+        // Entries are complete on disk even if the process crashes before closing the archive
+        Map<String, byte[]> entries = readArchive(sink.getCurrentArchive());
+        assertEquals(2, entries.size());
+        assertArrayEquals(image, entries.get("first.png"));
+        sink.close();
+    }
+
+    @Test
+    void testAsyncDropsWhenFull() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScreenshotSink slow = (name, image) -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        AsyncScreenshotSink sink = new AsyncScreenshotSink(slow, 1, true);
+        sink.accept("first.png", new byte[0]);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        sink.accept("second.png", new byte[0]);
+        sink.accept("third.png", new byte[0]);
+        assertEquals(1, sink.getDropped());
+
+        release.countDown();
+        sink.close();
+        assertEquals(2, sink.getWritten());
+        assertEquals(0, sink.getQueued());
+    }
+
+    @Test
+    void testAsyncDropsAfterClose() {
+        List<String> stored = new ArrayList<>();
+        AsyncScreenshotSink sink = new AsyncScreenshotSink((name, image) -> stored.add(name), 1, false);
+        sink.accept("first.png", new byte[0]);
+        sink.close();
+
+        sink.accept("late.png", new byte[0]);
+        assertEquals(List.of("first.png"), stored);
+        assertEquals(1, sink.getDropped());
+    }
+
+    @Test
+    void testAsyncWaitingCallerReleasedOnClose() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ScreenshotSink slow = (name, image) -> {
+            blocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AsyncScreenshotSink sink = new AsyncScreenshotSink(slow, 1, false);
+        sink.accept("first.png", new byte[0]);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        sink.accept("second.png", new byte[0]);
+
+        // Waits for space, as the writer is blocked and the queue is full
+        Thread waiting = new Thread(() -> sink.accept("third.png", new byte[0]));
+        waiting.start();
+        Thread closing = new Thread(sink::close);
+        closing.start();
+        waiting.join(5000);
+        assertFalse(waiting.isAlive());
+
+        release.countDown();
+        closing.join(5000);
+        assertEquals(2, sink.getWritten());
+        assertEquals(1, sink.getDropped());
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.chavaillaz.browser.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.chavaillaz.browser.StubDriver;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+class SessionPrewarmerTest {
+
+    private final List<StubDriver> drivers = new CopyOnWriteArrayList<>();
+
+    WebDriver startDriver() {
+        StubDriver stub = new StubDriver();
+        drivers.add(stub);
+        return stub.getDriver();
+    }
+
+    static void awaitReady(SessionPrewarmer prewarmer) throws InterruptedException {
+        for (int i = 0; i < 100 && !prewarmer.isReady(); i++) {
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void testSparesStartedAndReplaced() throws Exception {
+        try (SessionPrewarmer prewarmer = new SessionPrewarmer(this::startDriver, 3, 3).start()) {
+            awaitReady(prewarmer);
+            assertTrue(prewarmer.isReady());
+            assertEquals(3, prewarmer.getStatistics().ready());
+
+            WarmSession session = prewarmer.take();
+            assertTrue(drivers.stream().anyMatch(stub -> stub.getDriver() == session.driver()));
+            assertFalse(session.startupTime().isNegative());
+
+            awaitReady(prewarmer);
+            PrewarmerStatistics statistics = prewarmer.getStatistics();
+            assertEquals(3, statistics.ready());
+            assertEquals(4, statistics.started());
+            assertEquals(1, statistics.taken());
+            assertEquals(0, statistics.missed());
+        }
+    }
+
+    @Test
+    void testSparesQuitWhenClosed() throws Exception {
+        SessionPrewarmer prewarmer = new SessionPrewarmer(this::startDriver, 2, 1).start();
+        awaitReady(prewarmer);
+        prewarmer.close();
+
+        assertEquals(2, drivers.size());
+        assertTrue(drivers.stream().allMatch(stub -> stub.getCalls().contains("quit")));
+        assertTrue(prewarmer.take(Duration.ofMillis(10)).isEmpty());
+    }
+
+    @Test
+    void testFailedStartRetried() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<WebDriver> failingTwice = () -> {
+            if (attempts.incrementAndGet() <= 2) {
+                throw new IllegalStateException("Browser not available");
+            }
+            return startDriver();
+        };
+
+        try (SessionPrewarmer prewarmer = new SessionPrewarmer(failingTwice, 1, 1)
+                .withBackoff(Duration.ofMillis(10), Duration.ofMillis(50))
+                .start()) {
+            awaitReady(prewarmer);
+            assertTrue(prewarmer.isReady());
+            assertEquals(2, prewarmer.getStatistics().failed());
+            assertEquals(1, prewarmer.getStatistics().started());
+        }
+    }
+
+    @Test
+    void testDeadSpareDiscarded() throws Exception {
+        try (SessionPrewarmer prewarmer = new SessionPrewarmer(this::startDriver, 2, 1).start()) {
+            awaitReady(prewarmer);
+            drivers.get(0).crash();
+
+            WarmSession session = prewarmer.take();
+            assertSame(drivers.get(1).getDriver(), session.driver());
+            assertTrue(drivers.get(0).getCalls().contains("quit"));
+
+            awaitReady(prewarmer);
+            drivers.forEach(StubDriver::crash);
+            assertTrue(prewarmer.take(Duration.ofMillis(100)).isEmpty());
+
+            PrewarmerStatistics statistics = prewarmer.getStatistics();
+            assertEquals(3, statistics.discarded());
+            assertEquals(1, statistics.taken());
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.chavaillaz.browser.session;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.tracing.InMemorySpanExporter;
+import com.chavaillaz.browser.tracing.Tracer;
+import org.junit.jupiter.api.Test;
+import org.openqa.selenium.WebDriver;
+
+class SessionRegistryTest {
+
+    private final List<StubDriver> drivers = new CopyOnWriteArrayList<>();
+
+    WebDriver startDriver() {
+        StubDriver stub = new StubDriver();
+        drivers.add(stub);
+        return stub.getDriver();
+    }
+
+    @Test
+    void testDeadSessionReplaced() {
+        SessionRegistry registry = new SessionRegistry().withReplacement(this::startDriver);
+        AutomatedBrowser browser = registry.track(new AutomatedBrowser(startDriver()));
+
+        registry.checkHealth();
+        assertEquals(new RegistryStatistics(1, 1, 1, 0, 0, 0, 0), registry.getStatistics());
+
+        drivers.get(0).crash();
+        registry.checkHealth();
+        registry.checkHealth();
+        assertEquals(new RegistryStatistics(1, 0, 2, 1, 0, 0, 0), registry.getStatistics());
+        assertSame(drivers.get(0).getDriver(), browser.getDriver());
+
+        assertTrue(registry.recover(browser));
+        assertFalse(registry.recover(browser));
+        assertEquals(new RegistryStatistics(1, 1, 2, 1, 1, 0, 0), registry.getStatistics());
+        assertSame(drivers.get(1).getDriver(), browser.getDriver());
+        assertEquals(1, registry.getSessions().get(0).replacements());
+
+        registry.release(browser);
+        assertTrue(registry.getSessions().isEmpty());
+        assertFalse(drivers.get(1).isAlive());
+        assertEquals(1, registry.getStatistics().released());
+    }
+
+    @Test
+    void testProbeNotTraced() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        List<WebDriver> probed = new CopyOnWriteArrayList<>();
+        SessionRegistry registry = new SessionRegistry().withProbe(driver -> probed.add(driver) && SessionRegistry.isAlive(driver));
+        AutomatedBrowser browser = new AutomatedBrowser(startDriver());
+        browser.setTracer(new Tracer(exporter));
+        registry.track(browser);
+
+        registry.checkHealth();
+        assertEquals(List.of(drivers.get(0).getDriver()), probed);
+        assertTrue(drivers.get(0).getCalls().contains("getWindowHandle"));
+        assertTrue(exporter.getSpans().isEmpty());
+        registry.release(browser);
+    }
+
+    @Test
+    void testLeakedSessionQuit() throws InterruptedException {
+        SessionRegistry registry = new SessionRegistry();
+        registry.track(new AutomatedBrowser(startDriver()));
+        assertTrue(registry.getSessions().get(0).origin().getStackTrace()[1].getMethodName().contains("testLeakedSessionQuit"));
+
+        for (int i = 0; i < 50 && registry.getStatistics().leaked() == 0; i++) {
+            System.gc();
+            Thread.sleep(20);
+            registry.checkHealth();
+        }
+        assertEquals(1, registry.getStatistics().leaked());
+        assertTrue(registry.getSessions().isEmpty());
+        assertFalse(drivers.get(0).isAlive());
+    }
+
+}
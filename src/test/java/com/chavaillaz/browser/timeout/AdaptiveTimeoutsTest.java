@@ -0,0 +1,83 @@
+package com.chavaillaz.browser.timeout;
+
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveTimeoutsTest {
+
+    public static final String KEY = "By.cssSelector: .results";
+
+    @Test
+    void testCeilingUntilEnoughSamples() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts()
+                .withSamples(5, 100);
+
+        for (int i = 0; i < 4; i++) {
+            timeouts.recordSuccess(KEY, ofSeconds(4));
+        }
+        assertEquals(ofSeconds(30), timeouts.getTimeout(KEY));
+
+        timeouts.recordSuccess(KEY, ofSeconds(4));
+        assertEquals(ofSeconds(6), timeouts.getTimeout(KEY));
+        assertEquals(ofSeconds(30), timeouts.getTimeout("unknown"));
+    }
+
+    @Test
+    void testBoundsAndStatistics() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts()
+                .withPercentile(0.9, 2)
+                .withBounds(ofSeconds(1), ofSeconds(10))
+                .withSamples(1, 10);
+
+        timeouts.recordSuccess(KEY, ofMillis(100));
+        assertEquals(ofSeconds(1), timeouts.getTimeout(KEY));
+
+        for (int i = 1; i <= 10; i++) {
+            timeouts.recordSuccess(KEY, ofSeconds(i));
+        }
+        timeouts.recordTimeout(KEY, ofSeconds(1));
+
+        WaitStatistics statistics = timeouts.getStatistics(KEY);
+        assertEquals(10, statistics.samples());
+        assertEquals(1, statistics.timeouts());
+        assertEquals(ofSeconds(5), statistics.median());
+        assertEquals(ofSeconds(9), statistics.high());
+        assertEquals(ofSeconds(10), statistics.maximum());
+        assertEquals(ofSeconds(10), statistics.timeout());
+        assertEquals(1, timeouts.getStatistics().size());
+    }
+
+    @Test
+    void testTimeoutGrowsWhenWaitsGetSlower() {
+        AdaptiveTimeouts timeouts = new AdaptiveTimeouts()
+                .withSamples(5, 10);
+
+        for (int i = 0; i < 10; i++) {
+            timeouts.recordSuccess(KEY, ofSeconds(1));
+        }
+        assertEquals(ofSeconds(2), timeouts.getTimeout(KEY));
+
+        // The page now takes 5 seconds, every wait times out until the timeout exceeds it
+        Duration slow = ofSeconds(5);
+        List<Duration> applied = new ArrayList<>();
+        Duration timeout = timeouts.getTimeout(KEY);
+        while (timeout.compareTo(slow) < 0) {
+            applied.add(timeout);
+            timeouts.recordTimeout(KEY, timeout);
+            timeout = timeouts.getTimeout(KEY);
+        }
+        timeouts.recordSuccess(KEY, slow);
+
+        assertEquals(List.of(ofSeconds(2), ofSeconds(3), ofMillis(4500)), applied);
+        assertEquals(ofMillis(7500), timeouts.getTimeout(KEY));
+        assertEquals(3, timeouts.getStatistics(KEY).timeouts());
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.chavaillaz.browser.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import com.chavaillaz.browser.StubDriver;
+import com.chavaillaz.browser.engine.AutomatedBrowser;
+import com.chavaillaz.browser.engine.AutomatedBrowserFlow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openqa.selenium.json.Json;
+
+class TracingTest {
+
+    @TempDir
+    Path directory;
+
+    static Span find(List<Span> spans, String name) {
+        return spans.stream()
+                .filter(span -> span.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void testSpansHierarchy() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver());
+        browser.setTracer(new Tracer(exporter));
+
+        new AutomatedBrowserFlow<>(browser)
+                .withStep(automatedBrowser -> automatedBrowser.navigate("https://localhost/"))
+                .withStep(automatedBrowser -> {
+                    throw new IllegalStateException("Element not found");
+                })
+                .complete();
+
+        List<Span> spans = exporter.getSpans();
+        Span flow = find(spans, "AutomatedBrowserFlow");
+        Span navigate = find(spans, "AutomatedBrowser.navigate");
+        Span command = find(spans, "WebDriver.get");
+        List<Span> steps = spans.stream()
+                .filter(span -> span.getName().equals("AutomatedBrowserFlow.step"))
+                .toList();
+
+        assertNull(flow.getParentSpanId());
+        assertEquals(SpanStatus.ERROR, flow.getStatus());
+        assertEquals(2, steps.size());
+        assertTrue(steps.stream().allMatch(step -> step.getParentSpanId().equals(flow.getSpanId())));
+        assertEquals(steps.get(0).getSpanId(), navigate.getParentSpanId());
+        assertEquals("https://localhost/", navigate.getAttributes().get("url.full"));
+        assertEquals(navigate.getSpanId(), command.getParentSpanId());
+        assertTrue(spans.stream().allMatch(span -> span.getTraceId().equals(flow.getTraceId())));
+        assertEquals(IllegalStateException.class.getName(), steps.get(1).getAttributes().get("exception.type"));
+        assertEquals(SpanStatus.ERROR, steps.get(1).getStatus());
+    }
+
+    @Test
+    void testFlowSpanEndedOnClose() {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver());
+        browser.setTracer(new Tracer(exporter));
+
+        try (AutomatedBrowserFlow<AutomatedBrowser, Void> flow = new AutomatedBrowserFlow<>(browser)) {
+            flow.withStep(automatedBrowser -> automatedBrowser.navigate("https://localhost/"));
+            flow.complete();
+        }
+
+        List<Span> flows = exporter.getSpans().stream()
+                .filter(span -> span.getName().equals("AutomatedBrowserFlow"))
+                .toList();
+        assertEquals(1, flows.size());
+        assertEquals(SpanStatus.OK, flows.get(0).getStatus());
+    }
+
+    @Test
+    void testFlowSpanEndedWithBrowser() throws Exception {
+        InMemorySpanExporter exporter = new InMemorySpanExporter();
+        Tracer tracer = new Tracer(exporter);
+        try (AutomatedBrowser browser = new AutomatedBrowser(new StubDriver().getDriver())) {
+            browser.setTracer(tracer);
+            tracer.trace("job", () -> new AutomatedBrowserFlow<>(browser)
+                    .withStep(automatedBrowser -> automatedBrowser.navigate("https://localhost/")));
+            assertTrue(exporter.getSpans().stream().noneMatch(span -> span.getName().equals("AutomatedBrowserFlow")));
+        }
+
+        Span job = find(exporter.getSpans(), "job");
+        Span flow = find(exporter.getSpans(), "AutomatedBrowserFlow");
+        assertEquals(job.getSpanId(), flow.getParentSpanId());
+        assertEquals(job.getTraceId(), flow.getTraceId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFileExporter() throws Exception {
+        Path file = directory.resolve("traces.jsonl");
+        FileSpanExporter exporter = new FileSpanExporter(file, "test");
+        try (exporter) {
+            Tracer tracer = new Tracer(exporter);
+            tracer.trace("parent", () -> tracer.trace("child", () -> {
+            }));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(2, lines.size());
+        assertEquals(2, exporter.getWritten());
+        exporter.export(new Tracer(exporter).createSpan("late", null));
+        assertEquals(1, exporter.getDropped());
+        Map<String, Object> line = new Json().toType(lines.get(0), Json.MAP_TYPE);
+        Map<String, Object> resource = ((List<Map<String, Object>>) line.get("resourceSpans")).get(0);
+        Map<String, Object> scope = ((List<Map<String, Object>>) resource.get("scopeSpans")).get(0);
+        Map<String, Object> span = ((List<Map<String, Object>>) scope.get("spans")).get(0);
+        assertEquals("child", span.get("name"));
+        assertEquals(32, ((String) span.get("traceId")).length());
+        assertEquals(16, ((String) span.get("parentSpanId")).length());
+    }
+
+}